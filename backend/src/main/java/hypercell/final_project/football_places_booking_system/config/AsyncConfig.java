@@ -1,5 +1,6 @@
 package hypercell.final_project.football_places_booking_system.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -21,4 +22,19 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    // BCrypt gets half the cores at most, so a burst of logins cannot starve the other endpoints.
+    // When the queue is full further hashes are rejected instead of waiting.
+    @Bean(name = "passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor(
+            @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity) {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("PasswordHashThread-");
+        executor.initialize();
+        return executor;
+    }
 }
@@ -2,11 +2,14 @@ package hypercell.final_project.football_places_booking_system.controller;
 
 import hypercell.final_project.football_places_booking_system.model.enums.UserStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -15,11 +18,16 @@ import hypercell.final_project.football_places_booking_system.exception.AppExcep
 import hypercell.final_project.football_places_booking_system.exception.InvalidCredentialsException;
 import hypercell.final_project.football_places_booking_system.model.db.User;
 import hypercell.final_project.football_places_booking_system.model.dto.AuthDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.AuthLoadStatsDTO;
 import hypercell.final_project.football_places_booking_system.model.dto.LoginDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.RefreshTokenDTO;
 import hypercell.final_project.football_places_booking_system.model.dto.UserDTO;
 import hypercell.final_project.football_places_booking_system.model.enums.ErrorCode;
-import hypercell.final_project.football_places_booking_system.service.Impl.JwtServiceImpl;
+import hypercell.final_project.football_places_booking_system.security.BoundedPasswordEncoder;
+import hypercell.final_project.football_places_booking_system.service.Impl.AuthThrottleServiceImpl;
+import hypercell.final_project.football_places_booking_system.service.Impl.RefreshTokenServiceImpl;
 import hypercell.final_project.football_places_booking_system.service.Impl.UserServiceImpl;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 
 @RequiredArgsConstructor
@@ -27,24 +35,27 @@ import lombok.RequiredArgsConstructor;
 @RequestMapping("/api/auth")
 public class AuthenticationController {
     private final AuthenticationManager authenticationManager;
-    private final JwtServiceImpl jwtService;
+    private final RefreshTokenServiceImpl refreshTokenService;
     private final UserServiceImpl userService;
+    private final AuthThrottleServiceImpl authThrottleService;
+    private final BoundedPasswordEncoder passwordEncoder;
 
     @PostMapping("/register")
-    public ResponseEntity<AuthDTO> register(@RequestBody UserDTO user) throws AppException {
+    public ResponseEntity<AuthDTO> register(@RequestBody UserDTO user, HttpServletRequest http) throws AppException {
+        // Throttled by the socket address; X-Forwarded-For is client-controlled unless a trusted proxy sets it
+        authThrottleService.check(http.getRemoteAddr(), user.email());
         userService.register(user);
 
         Authentication authentication = authenticationManager.authenticate(
         new UsernamePasswordAuthenticationToken(user.email(), user.password()));
         User authenticatedUser = (User) authentication.getPrincipal();
 
-        String token = jwtService.generateToken(authenticatedUser);
-
-        return ResponseEntity.ok(new AuthDTO(authenticatedUser.getId(), token, authenticatedUser.getRole()));
+        return ResponseEntity.ok(refreshTokenService.issueTokens(authenticatedUser));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthDTO> login(@RequestBody LoginDTO request) throws AppException {
+    public ResponseEntity<AuthDTO> login(@RequestBody LoginDTO request, HttpServletRequest http) throws AppException {
+        authThrottleService.check(http.getRemoteAddr(), request.email());
 
         try {
             Authentication auth = authenticationManager.authenticate(
@@ -56,12 +67,35 @@ public class AuthenticationController {
                 throw new InvalidCredentialsException(ErrorCode.FORBIDDEN_STATUS);
             }
             
-            String token = jwtService.generateToken(user);
-
-            return ResponseEntity.ok(new AuthDTO(user.getId(), token, user.getRole()));
+            return ResponseEntity.ok(refreshTokenService.issueTokens(user));
         } 
         catch (BadCredentialsException e) {
             throw new InvalidCredentialsException(ErrorCode.INVALID_CREDENTIALS);
         }
     }
+
+    // Trade a refresh token for a new access token and a new refresh token; the old one is spent
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthDTO> refresh(@RequestBody RefreshTokenDTO request, HttpServletRequest http) throws AppException {
+        authThrottleService.checkRefresh(http.getRemoteAddr());
+        return ResponseEntity.ok(refreshTokenService.refresh(request.refreshToken()));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestBody(required = false) RefreshTokenDTO request,
+            @RequestHeader(value = "Authorization", required = false) String authHeader
+    ) {
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        refreshTokenService.logout(request != null ? request.refreshToken() : null, accessToken);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Password hashing latency and queue depth, and how many requests the throttle turned away
+    @PreAuthorize("@authService.is('ACTIVE') and hasRole('ADMIN')")
+    @GetMapping("/stats")
+    public ResponseEntity<AuthLoadStatsDTO> getStats() {
+        return ResponseEntity.ok(new AuthLoadStatsDTO(passwordEncoder.getStats(),
+                authThrottleService.getThrottledByAddress(), authThrottleService.getThrottledByAccount()));
+    }
 }
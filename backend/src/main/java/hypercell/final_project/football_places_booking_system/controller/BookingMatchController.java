@@ -1,21 +1,26 @@
 package hypercell.final_project.football_places_booking_system.controller;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import hypercell.final_project.football_places_booking_system.exception.AppException;
@@ -23,11 +28,26 @@ import hypercell.final_project.football_places_booking_system.model.db.BookingMa
 import hypercell.final_project.football_places_booking_system.model.db.User;
 import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingDTO;
 import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingDetailRespDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingExpiryStatsDTO;
 import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingMapper;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingPageResponseDTO;
 import static hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingMapper.toResponseDTO;
 import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingResponseDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingSeriesDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingSeriesResponseDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.OpenMatchDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.SlotHoldDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.SlotHoldResponseDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.WaitlistEntryResponseDTO;
 import hypercell.final_project.football_places_booking_system.model.dto.BookingSlotUpdateMessage;
+import hypercell.final_project.football_places_booking_system.model.dto.MatchPartDTOs.MatchPageResponseDTO;
+import hypercell.final_project.football_places_booking_system.model.enums.MatchStatus;
+import hypercell.final_project.football_places_booking_system.model.enums.PlaceType;
+import hypercell.final_project.football_places_booking_system.service.Impl.BookingExpiryServiceImpl;
 import hypercell.final_project.football_places_booking_system.service.Impl.BookingMatchServiceImpl;
+import hypercell.final_project.football_places_booking_system.service.Impl.OpenMatchFeedServiceImpl;
+import hypercell.final_project.football_places_booking_system.service.Impl.SlotHoldServiceImpl;
+import hypercell.final_project.football_places_booking_system.service.Impl.WaitlistServiceImpl;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -38,6 +58,10 @@ public class BookingMatchController {
     private SimpMessagingTemplate messagingTemplate;
 
     private final BookingMatchServiceImpl bookingMatchService;
+    private final SlotHoldServiceImpl slotHoldService;
+    private final WaitlistServiceImpl waitlistService;
+    private final OpenMatchFeedServiceImpl openMatchFeedService;
+    private final BookingExpiryServiceImpl bookingExpiryService;
 
     @PreAuthorize("@authService.is('ACTIVE')")
     @PostMapping
@@ -58,6 +82,68 @@ public class BookingMatchController {
         return new ResponseEntity<>(toResponseDTO(created), HttpStatus.CREATED);
     }
 
+    @PreAuthorize("@authService.is('ACTIVE')")
+    @PostMapping("/series")
+    public ResponseEntity<BookingSeriesResponseDTO> createSeries(
+            @RequestBody BookingSeriesDTO dto,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) throws AppException {
+        User currentUser = (User) userDetails;
+        BookingSeriesResponseDTO result = bookingMatchService.createBookingSeries(dto, currentUser.getId());
+
+        // one slot update per booked day, as for single bookings
+        result.occurrences().stream()
+                .filter(occurrence -> occurrence.bookingId() != null)
+                .map(occurrence -> occurrence.startTime().toLocalDate().toString())
+                .distinct()
+                .forEach(date -> messagingTemplate.convertAndSend("/topic/bookings",
+                        new BookingSlotUpdateMessage(dto.placeId(), date)));
+
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
+    }
+
+    @PreAuthorize("@authService.is('ACTIVE')")
+    @PostMapping("/holds")
+    public ResponseEntity<SlotHoldResponseDTO> holdSlot(
+            @RequestBody SlotHoldDTO dto,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) throws AppException {
+        User currentUser = (User) userDetails;
+        return new ResponseEntity<>(slotHoldService.createHold(dto, currentUser.getId()), HttpStatus.CREATED);
+    }
+
+    @PreAuthorize("@authService.is('ACTIVE')")
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<Void> releaseHold(
+            @PathVariable UUID holdId,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) throws AppException {
+        User currentUser = (User) userDetails;
+        slotHoldService.releaseHold(holdId, currentUser.getId());
+        return ResponseEntity.noContent().build();
+    }
+
+    @PreAuthorize("@authService.is('ACTIVE')")
+    @PostMapping("/waitlist")
+    public ResponseEntity<WaitlistEntryResponseDTO> joinWaitlist(
+            @RequestBody BookingDTO dto,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) throws AppException {
+        User currentUser = (User) userDetails;
+        return new ResponseEntity<>(waitlistService.join(dto, currentUser.getId()), HttpStatus.CREATED);
+    }
+
+    @PreAuthorize("@authService.is('ACTIVE')")
+    @DeleteMapping("/waitlist/{entryId}")
+    public ResponseEntity<Void> leaveWaitlist(
+            @PathVariable UUID entryId,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) throws AppException {
+        User currentUser = (User) userDetails;
+        waitlistService.leave(entryId, currentUser.getId());
+        return ResponseEntity.noContent().build();
+    }
+
     @PreAuthorize("@authService.is('ACTIVE') and hasRole('ADMIN')")
 //    @PreAuthorize("@authService.is('ACTIVE')")
     @PatchMapping("/confirm/{id}")
@@ -113,9 +199,13 @@ public class BookingMatchController {
 
     @PreAuthorize("@authService.is('ACTIVE')")
     @GetMapping("/place/{placeId}")
-    public ResponseEntity<List<BookingResponseDTO>> getByPlace(@PathVariable UUID placeId) throws AppException {
+    public ResponseEntity<List<BookingResponseDTO>> getByPlace(
+            @PathVariable UUID placeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) throws AppException {
         return ResponseEntity.ok(
-                bookingMatchService.getByPlace(placeId).stream()
+                bookingMatchService.getByPlace(placeId, from, to).stream()
                         .map(BookingMapper::toResponseDTO)
                         .toList()
         );
@@ -123,9 +213,13 @@ public class BookingMatchController {
 
     @PreAuthorize("@authService.is('ACTIVE')")
     @GetMapping("/team/{teamId}")
-    public ResponseEntity<List<BookingResponseDTO>> getByTeam(@PathVariable UUID teamId) throws AppException {
+    public ResponseEntity<List<BookingResponseDTO>> getByTeam(
+            @PathVariable UUID teamId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) throws AppException {
         return ResponseEntity.ok(
-                bookingMatchService.getByTeam(teamId).stream()
+                bookingMatchService.getByTeam(teamId, from, to).stream()
                         .map(BookingMapper::toResponseDTO)
                         .toList()
         );
@@ -133,22 +227,49 @@ public class BookingMatchController {
 
     @PreAuthorize("@authService.is('ACTIVE')")
     @GetMapping("/all")
-    public ResponseEntity<List<BookingResponseDTO>> getAll() {
-        return ResponseEntity.ok(
-                bookingMatchService.getAll().stream()
-                        .map(BookingMapper::toResponseDTO)
-                        .toList()
-        );
+    public ResponseEntity<BookingPageResponseDTO> getPage(
+            @RequestParam(required = false) MatchStatus status,
+            @RequestParam(required = false) UUID placeId,
+            @RequestParam(required = false) UUID teamId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) throws AppException {
+        return ResponseEntity.ok(bookingMatchService.getPage(status, placeId, teamId, from, to, cursor, size));
+    }
+
+    // Upcoming matches still looking for players, soonest first
+    @PreAuthorize("@authService.is('ACTIVE')")
+    @GetMapping("/open")
+    public ResponseEntity<MatchPageResponseDTO<OpenMatchDTO>> getOpenMatches(
+            @RequestParam(required = false) PlaceType placeType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) UUID placeId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) throws AppException {
+        return ResponseEntity.ok(openMatchFeedService.getFeed(placeType, date, placeId, cursor, size));
+    }
+
+    // Counters of the sweep that cancels pending bookings once their start time has passed
+    @PreAuthorize("@authService.is('ACTIVE') and hasRole('ADMIN')")
+    @GetMapping("/expiry-stats")
+    public ResponseEntity<BookingExpiryStatsDTO> getExpiryStats() {
+        return ResponseEntity.ok(bookingExpiryService.getStats());
     }
 
     @PreAuthorize("@authService.is('ACTIVE')")
     @GetMapping("/my/organizer")
     public ResponseEntity<List<BookingResponseDTO>> getMyMatchesAsOrganizer(
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(defaultValue = "false") boolean includePast,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size
     ) throws AppException {
         User currentUser = (User) userDetails;
         return ResponseEntity.ok(
-                bookingMatchService.getMyMatchesAsOrganizer(currentUser.getId()).stream()
+                bookingMatchService.getMyMatchesAsOrganizer(currentUser.getId(), includePast, page, size).stream()
                         .map(BookingMapper::toResponseDTO)
                         .toList()
         );
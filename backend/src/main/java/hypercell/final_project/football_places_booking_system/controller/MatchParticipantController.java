@@ -1,10 +1,12 @@
 package hypercell.final_project.football_places_booking_system.controller;
 
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -24,6 +26,10 @@ import hypercell.final_project.football_places_booking_system.exception.Forbidde
 import hypercell.final_project.football_places_booking_system.model.db.MatchParticipant;
 import hypercell.final_project.football_places_booking_system.model.db.User;
 import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingDetailRespDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingIntervalDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.MatchPartDTOs.BulkInvitationRequest;
+import hypercell.final_project.football_places_booking_system.model.dto.MatchPartDTOs.BulkInvitationResponseDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.MatchPartDTOs.MatchPageResponseDTO;
 import hypercell.final_project.football_places_booking_system.model.dto.MatchPartDTOs.MatchPartMapper;
 import hypercell.final_project.football_places_booking_system.model.dto.MatchPartDTOs.MatchPartResponseDTO;
 import hypercell.final_project.football_places_booking_system.model.dto.MatchPartDTOs.UserMatchResponseDTO;
@@ -32,6 +38,7 @@ import hypercell.final_project.football_places_booking_system.model.enums.ErrorC
 import hypercell.final_project.football_places_booking_system.model.enums.ParticipantStatus;
 import hypercell.final_project.football_places_booking_system.service.Impl.BookingMatchServiceImpl;
 import hypercell.final_project.football_places_booking_system.service.Impl.MatchParticipantServiceImpl;
+import hypercell.final_project.football_places_booking_system.service.Impl.PlayerScheduleServiceImpl;
 import hypercell.final_project.football_places_booking_system.service.Interfaces.TeamMemberService;
 import lombok.RequiredArgsConstructor;
 
@@ -44,6 +51,7 @@ public class MatchParticipantController {
     private final MatchParticipantServiceImpl matchParticipantService;
     private final TeamMemberService teamMemberService;
     private final BookingMatchServiceImpl bookingMatchService;
+    private final PlayerScheduleServiceImpl playerScheduleService;
 
     /**
      * Invite a user to participate in a match.
@@ -75,6 +83,61 @@ public class MatchParticipantController {
         return new ResponseEntity<>(MatchPartMapper.toResponseDTO(participant), HttpStatus.CREATED);
     }
 
+    /**
+     * Invite several users to a match in one call.
+     * Only ORGANIZERs in the team can send invitations.
+     */
+    @PreAuthorize("@authService.is('ACTIVE')")
+    @PostMapping("/invite-bulk/{bookingMatchId}")
+    public ResponseEntity<BulkInvitationResponseDTO> inviteBulk(
+            @PathVariable UUID bookingMatchId,
+            @RequestBody BulkInvitationRequest dto,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) throws AppException {
+
+        User inviter = (User) userDetails;
+
+        var bookingMatch = bookingMatchService.getById(bookingMatchId);
+        if (!teamMemberService.isOrganizer(inviter.getId(), bookingMatch.getTeam().getId())) {
+            throw new ForbiddenActionException(ErrorCode.FORBIDDEN_ROLE);
+        }
+
+        BulkInvitationResponseDTO result = matchParticipantService.inviteParticipants(dto, bookingMatchId);
+
+        result.results().stream()
+                .filter(invitation -> invitation.participantId() != null)
+                .forEach(invitation -> messagingTemplate.convertAndSend("/topic/notification/" + invitation.userId(), ""));
+
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
+    }
+
+    /**
+     * Invite every approved member of the match team who is not a participant yet.
+     * Only ORGANIZERs in the team can send invitations.
+     */
+    @PreAuthorize("@authService.is('ACTIVE')")
+    @PostMapping("/invite-roster/{bookingMatchId}")
+    public ResponseEntity<BulkInvitationResponseDTO> inviteRoster(
+            @PathVariable UUID bookingMatchId,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) throws AppException {
+
+        User inviter = (User) userDetails;
+
+        var bookingMatch = bookingMatchService.getById(bookingMatchId);
+        if (!teamMemberService.isOrganizer(inviter.getId(), bookingMatch.getTeam().getId())) {
+            throw new ForbiddenActionException(ErrorCode.FORBIDDEN_ROLE);
+        }
+
+        BulkInvitationResponseDTO result = matchParticipantService.inviteRoster(bookingMatchId);
+
+        result.results().stream()
+                .filter(invitation -> invitation.participantId() != null)
+                .forEach(invitation -> messagingTemplate.convertAndSend("/topic/notification/" + invitation.userId(), ""));
+
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
+    }
+
     // Endpoint to accept or reject invitation via frontend
     @PreAuthorize("@authService.is('ACTIVE')")
     @GetMapping("/respond/{matchParticipantId}")
@@ -167,4 +230,41 @@ public class MatchParticipantController {
         var matches = matchParticipantService.getUserParticipatedMatchesDetailed(currentUser.getId());
         return ResponseEntity.ok(matches);
     }
+
+    // Keyset pages of the user's upcoming (past=false) or past matches
+    @PreAuthorize("@authService.is('ACTIVE')")
+    @GetMapping("/user/matches/page")
+    public ResponseEntity<MatchPageResponseDTO<UserMatchResponseDTO>> getMatchesByUserPage(
+            @RequestParam(defaultValue = "false") boolean past,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) throws AppException {
+        User currentUser = (User) userDetails;
+        return ResponseEntity.ok(matchParticipantService.getUserParticipatedMatchesPage(currentUser.getId(), past, cursor, size));
+    }
+
+    @PreAuthorize("@authService.is('ACTIVE')")
+    @GetMapping("/user/matches/details/page")
+    public ResponseEntity<MatchPageResponseDTO<BookingDetailRespDTO>> getUserMatchesDetailedPage(
+            @RequestParam(defaultValue = "false") boolean past,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) throws AppException {
+        User currentUser = (User) userDetails;
+        return ResponseEntity.ok(matchParticipantService.getUserParticipatedMatchesDetailedPage(currentUser.getId(), past, cursor, size));
+    }
+
+    // Times the user is already committed to, for greying out clashing invitations
+    @PreAuthorize("@authService.is('ACTIVE')")
+    @GetMapping("/user/busy")
+    public ResponseEntity<List<BookingIntervalDTO>> getMyBusyTimes(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) throws AppException {
+        User currentUser = (User) userDetails;
+        return ResponseEntity.ok(playerScheduleService.getBusyTimes(currentUser.getId(), from, to));
+    }
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package hypercell.final_project.football_places_booking_system.controller;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -19,6 +23,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import hypercell.final_project.football_places_booking_system.exception.AppException;
+import hypercell.final_project.football_places_booking_system.model.dto.PlaceAvailabilityDTO;
 import hypercell.final_project.football_places_booking_system.model.dto.PlaceDTO;
 import hypercell.final_project.football_places_booking_system.model.dto.ResponseDTO;
 import hypercell.final_project.football_places_booking_system.model.enums.PlaceType;
@@ -48,6 +53,28 @@ public class PlaceController {
         return new ResponseEntity<>(place, HttpStatus.OK);
     }
 
+    // Places (optionally of one type, matching name/location) that are free for the whole window
+    @PreAuthorize("@authService.is('ACTIVE')")
+    @GetMapping("/available")
+    public ResponseEntity<List<PlaceDTO>> findAvailablePlaces(
+            @RequestParam(required = false) PlaceType placeType,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String location
+    ) throws AppException {
+        return ResponseEntity.ok(placeService.findAvailablePlaces(placeType, startTime, endTime, name, location));
+    }
+
+    @PreAuthorize("@authService.is('ACTIVE')")
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<PlaceAvailabilityDTO> getDailyAvailability(
+            @PathVariable UUID id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) throws AppException {
+        return ResponseEntity.ok(placeService.getDailyAvailability(id, date));
+    }
+
     @PreAuthorize("@authService.is('ACTIVE')")
     @GetMapping("/all")
     public Page<PlaceDTO> filterPlaces(
@@ -0,0 +1,15 @@
+package hypercell.final_project.football_places_booking_system.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import hypercell.final_project.football_places_booking_system.model.enums.ErrorCode;
+
+// The resource was changed concurrently; the client should reload it and retry
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflictException extends AppException {
+
+    public ConflictException(ErrorCode errorCode) {
+        super(errorCode);
+    }
+}
@@ -1,10 +1,13 @@
 package hypercell.final_project.football_places_booking_system.exception;
 
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import hypercell.final_project.football_places_booking_system.model.enums.ErrorCode;
+
 @ControllerAdvice
 public class ExceptionHandlerController {
     @ExceptionHandler(ValidationException.class)
@@ -12,6 +15,12 @@ public class ExceptionHandlerController {
         return new ResponseEntity<>(e.getData(), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(SlotUnavailableException.class)
+    public ResponseEntity<SlotUnavailableException.Body> handleAppException(SlotUnavailableException e) {
+        return new ResponseEntity<>(new SlotUnavailableException.Body(e.getData().code(), e.getData().msg(),
+                e.getSuggestions()), HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(NoContentException.class)
     public ResponseEntity<AppException.Data> handleAppException() {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
@@ -32,8 +41,24 @@ public class ExceptionHandlerController {
         return new ResponseEntity<>(e.getData(), HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<AppException.Data> handleAppException(ConflictException e) {
+        return new ResponseEntity<>(e.getData(), HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(InvalidCredentialsException.class)
     public ResponseEntity<AppException.Data> handleAppException(InvalidCredentialsException e) {
         return new ResponseEntity<>(e.getData(), HttpStatus.UNAUTHORIZED);
     }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<AppException.Data> handleAppException(TooManyRequestsException e) {
+        return new ResponseEntity<>(e.getData(), HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    // Password hashing shed the request because its queue was full or the wait timed out
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<AppException.Data> handleTaskRejected() {
+        return new ResponseEntity<>(AppException.Data.fromErrorCode(ErrorCode.SERVER_BUSY), HttpStatus.SERVICE_UNAVAILABLE);
+    }
 }
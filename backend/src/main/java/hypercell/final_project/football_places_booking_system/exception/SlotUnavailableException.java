@@ -0,0 +1,24 @@
+package hypercell.final_project.football_places_booking_system.exception;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.SlotSuggestionDTO;
+import hypercell.final_project.football_places_booking_system.model.enums.ErrorCode;
+import lombok.Getter;
+
+// TIME_SLOT_UNAVAILABLE, carrying the nearest free windows the user can pick instead
+@Getter
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class SlotUnavailableException extends ValidationException {
+    private final List<SlotSuggestionDTO> suggestions;
+
+    public SlotUnavailableException(List<SlotSuggestionDTO> suggestions) {
+        super(ErrorCode.TIME_SLOT_UNAVAILABLE);
+        this.suggestions = suggestions;
+    }
+
+    public record Body(Integer code, String msg, List<SlotSuggestionDTO> suggestions) {}
+}
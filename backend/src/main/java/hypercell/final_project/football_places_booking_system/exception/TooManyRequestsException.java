@@ -0,0 +1,15 @@
+package hypercell.final_project.football_places_booking_system.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import hypercell.final_project.football_places_booking_system.model.enums.ErrorCode;
+
+// The caller used up its request budget; the client should wait before trying again
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyRequestsException extends AppException {
+
+    public TooManyRequestsException(ErrorCode errorCode) {
+        super(errorCode);
+    }
+}
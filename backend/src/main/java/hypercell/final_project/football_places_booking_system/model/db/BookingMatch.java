@@ -5,6 +5,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import hypercell.final_project.football_places_booking_system.model.enums.MatchStatus;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -37,6 +39,16 @@ public class BookingMatch extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private MatchStatus status;
 
+    // Optimistic lock: a save based on a stale copy of the match fails instead of overwriting it.
+    @Version
+    private Long version;
+
+    // Number of ACCEPTED participants. Only changed by the atomic update in BookingMatchRepository,
+    // never written from the entity, so saving a stale match cannot overwrite it.
+    @ColumnDefault("0")
+    @Column(name = "accepted_count", insertable = false, updatable = false)
+    private int acceptedCount;
+
     // The place where the match is booked.
     @ManyToOne
     @JoinColumn(name = "place_id")
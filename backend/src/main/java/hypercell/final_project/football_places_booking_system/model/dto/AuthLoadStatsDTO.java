@@ -0,0 +1,8 @@
+package hypercell.final_project.football_places_booking_system.model.dto;
+
+// Password hashing load and how many /api/auth requests were turned away by the throttle.
+public record AuthLoadStatsDTO(
+        PasswordHashingStatsDTO passwordHashing,
+        long throttledByAddress,
+        long throttledByAccount
+) {}
@@ -0,0 +1,12 @@
+package hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs;
+
+import java.time.LocalDateTime;
+
+// Counters of the sweep that cancels pending bookings whose start time has passed.
+public record BookingExpiryStatsDTO(
+        long runs,
+        long totalExpired,
+        LocalDateTime lastRunAt,
+        int lastExpired,
+        long lastDurationMillis
+) {}
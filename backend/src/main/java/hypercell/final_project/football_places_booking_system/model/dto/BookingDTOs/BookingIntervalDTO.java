@@ -0,0 +1,13 @@
+package hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Lightweight projection of a booking's time slot, used to build the in-memory availability and player indexes.
+public record BookingIntervalDTO(
+        UUID id,
+        UUID placeId,
+        UUID teamId,
+        LocalDateTime startTime,
+        LocalDateTime endTime
+) {}
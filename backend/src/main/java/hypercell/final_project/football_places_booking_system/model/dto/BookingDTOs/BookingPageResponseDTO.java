@@ -0,0 +1,9 @@
+package hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs;
+
+import java.util.List;
+
+// One page of bookings. nextCursor is passed back as `cursor` to get the next page, null on the last page.
+public record BookingPageResponseDTO(
+        List<BookingResponseDTO> items,
+        String nextCursor
+) {}
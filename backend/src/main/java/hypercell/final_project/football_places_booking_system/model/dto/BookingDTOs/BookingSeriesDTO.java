@@ -0,0 +1,17 @@
+package hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// DTO for booking the same slot every N weeks. The first occurrence is [startTime, endTime);
+// the series stops after `occurrences` bookings or on the `until` date, whichever comes first.
+public record BookingSeriesDTO(
+        UUID placeId,
+        UUID teamId,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        Integer intervalWeeks,
+        Integer occurrences,
+        LocalDate until
+) {}
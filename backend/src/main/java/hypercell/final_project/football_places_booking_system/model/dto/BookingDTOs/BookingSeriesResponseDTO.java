@@ -0,0 +1,21 @@
+package hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import hypercell.final_project.football_places_booking_system.exception.AppException;
+
+// Result of a booking series: one entry per occurrence, either booked or with the reason it was not.
+public record BookingSeriesResponseDTO(
+        int requested,
+        int booked,
+        List<Occurrence> occurrences
+) {
+    public record Occurrence(
+            LocalDateTime startTime,
+            LocalDateTime endTime,
+            UUID bookingId,
+            AppException.Data conflict
+    ) {}
+}
@@ -0,0 +1,34 @@
+package hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import hypercell.final_project.football_places_booking_system.model.enums.PlaceType;
+
+// A match still looking for players. remaining = capacity - accepted; invited counts unanswered invitations.
+public record OpenMatchDTO(
+        UUID matchId,
+        UUID placeId,
+        String placeName,
+        PlaceType placeType,
+        UUID teamId,
+        String teamName,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        int capacity,
+        int accepted,
+        int invited,
+        int remaining
+) {
+    // Used by the warm-up query
+    public OpenMatchDTO(UUID matchId, UUID placeId, String placeName, PlaceType placeType, UUID teamId, String teamName,
+                        LocalDateTime startTime, LocalDateTime endTime, int accepted, long invited) {
+        this(matchId, placeId, placeName, placeType, teamId, teamName, startTime, endTime,
+                placeType.getCapacity(), accepted, (int) invited, placeType.getCapacity() - accepted);
+    }
+
+    public OpenMatchDTO withCounts(int accepted, int invited) {
+        return new OpenMatchDTO(matchId, placeId, placeName, placeType, teamId, teamName, startTime, endTime,
+                capacity, accepted, Math.max(invited, 0), capacity - accepted);
+    }
+}
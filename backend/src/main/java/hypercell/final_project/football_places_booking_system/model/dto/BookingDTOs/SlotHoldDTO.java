@@ -0,0 +1,11 @@
+package hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// DTO for holding a slot while the booking form is being filled in.
+public record SlotHoldDTO(
+        UUID placeId,
+        LocalDateTime startTime,
+        LocalDateTime endTime
+) {}
@@ -0,0 +1,12 @@
+package hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record SlotHoldResponseDTO(
+        UUID holdId,
+        UUID placeId,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        LocalDateTime expiresAt
+) {}
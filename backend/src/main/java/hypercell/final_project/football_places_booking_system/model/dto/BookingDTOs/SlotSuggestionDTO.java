@@ -0,0 +1,12 @@
+package hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// A free window of the requested length offered instead of a slot that was taken.
+public record SlotSuggestionDTO(
+        UUID placeId,
+        String placeName,
+        LocalDateTime startTime,
+        LocalDateTime endTime
+) {}
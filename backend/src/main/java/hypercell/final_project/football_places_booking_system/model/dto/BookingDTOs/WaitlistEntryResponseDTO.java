@@ -0,0 +1,14 @@
+package hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// A team's place in the waitlist of a slot; position 1 is promoted first.
+public record WaitlistEntryResponseDTO(
+        UUID id,
+        UUID placeId,
+        UUID teamId,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        int position
+) {}
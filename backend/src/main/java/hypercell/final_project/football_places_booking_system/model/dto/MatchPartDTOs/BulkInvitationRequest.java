@@ -0,0 +1,7 @@
+package hypercell.final_project.football_places_booking_system.model.dto.MatchPartDTOs;
+
+import java.util.List;
+
+public record BulkInvitationRequest(
+        List<String> emails
+) {}
@@ -0,0 +1,19 @@
+package hypercell.final_project.football_places_booking_system.model.dto.MatchPartDTOs;
+
+import java.util.List;
+import java.util.UUID;
+
+import hypercell.final_project.football_places_booking_system.exception.AppException;
+
+// Outcome of a bulk invitation, one result per requested address in request order.
+public record BulkInvitationResponseDTO(
+        int invited,
+        List<Result> results
+) {
+    public record Result(
+            String email,
+            UUID participantId,
+            UUID userId,
+            AppException.Data error
+    ) {}
+}
@@ -0,0 +1,9 @@
+package hypercell.final_project.football_places_booking_system.model.dto.MatchPartDTOs;
+
+import java.util.List;
+
+// One page of a user's matches. nextCursor is passed back as `cursor` to get the next page, null on the last page.
+public record MatchPageResponseDTO<T>(
+        List<T> items,
+        String nextCursor
+) {}
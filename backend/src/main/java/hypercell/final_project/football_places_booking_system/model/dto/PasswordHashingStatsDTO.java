@@ -0,0 +1,12 @@
+package hypercell.final_project.football_places_booking_system.model.dto;
+
+// Load on the executor that runs BCrypt; rejected counts hashes shed because it was saturated.
+public record PasswordHashingStatsDTO(
+        long hashes,
+        long rejected,
+        double averageHashMillis,
+        double maxHashMillis,
+        int activeThreads,
+        int queueDepth,
+        int queueCapacity
+) {}
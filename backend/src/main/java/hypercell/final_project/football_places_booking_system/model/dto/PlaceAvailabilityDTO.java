@@ -0,0 +1,8 @@
+package hypercell.final_project.football_places_booking_system.model.dto;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Busy/free grid of a place for one day. busySlots is a bitmap of slotCount slots written as hex,
+// read left to right: the first character covers the first four slots, its highest bit being slot 0.
+public record PlaceAvailabilityDTO(UUID placeId, LocalDate date, int slotMinutes, int slotCount, String busySlots) {}
@@ -0,0 +1,4 @@
+package hypercell.final_project.football_places_booking_system.model.dto;
+
+public record RefreshTokenDTO (String refreshToken) {
+}
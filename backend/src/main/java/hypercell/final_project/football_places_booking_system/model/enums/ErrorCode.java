@@ -50,6 +50,16 @@ public enum ErrorCode {
     TIME_SLOT_UNAVAILABLE(605, "The selected time slot is already booked for this place"),
     UNAUTHORIZED_BOOKING_ACTION(606, "Only team organizers can perform this action"),
     MATCH_CANNOT_BE_CANCELLED_NOW(607, "Match Can not be cancelled now"),
+    INVALID_RECURRENCE_RULE(608, "Recurrence rule is invalid"),
+    SLOT_HOLD_NOT_FOUND(609, "Slot hold not found or already expired"),
+    SLOT_HOLD_LIMIT_REACHED(610, "Too many active slot holds"),
+    WAITLIST_FULL(611, "The waitlist for this slot is full"),
+    WAITLIST_ENTRY_NOT_FOUND(612, "Waitlist entry not found"),
+    WAITLIST_ALREADY_JOINED(613, "Team is already on the waitlist for this slot"),
+    WAITLIST_SLOT_AVAILABLE(614, "The selected time slot is available, book it directly"),
+    TEAM_TIME_CONFLICT(615, "Team already has a booking at this time"),
+    INVALID_STATUS_TRANSITION(616, "The booking cannot move to this status from its current one"),
+    BOOKING_STATUS_CONFLICT(617, "The booking was changed by someone else, reload it and try again"),
 
     // ===== Match Participant Errors =====
     INVALID_PARTICIPANT_ID (700, "Participant ID is either empty or null"),
@@ -59,6 +69,8 @@ public enum ErrorCode {
     INVALID_PARTICIPANT_EMAIL(704, "Participant email is either empty or null"),
     MATCH_PARTICIPANT_ALREADY_RESPONDED(705, "Participant has already responded to the invitation"),
     MATCH_CAPACITY_EXCEEDED(706, "Match capacity exceeded - invitation expired"),
+    TOO_MANY_INVITATIONS(707, "Too many invitations in one request"),
+    PLAYER_TIME_CONFLICT(708, "Player already accepted another match at this time"),
 
     // ===== Request Errors =====
     INVALID_REQUEST_TYPE(800, "Request type is invalid"),
@@ -74,7 +86,12 @@ public enum ErrorCode {
     FORBIDDEN(904, "Action is forbidden"),
     INTERNAL_ERROR(905, "Internal server error"),
     INVALID_CREDENTIALS(906, "Invalid credentials provided"),
-    INVALID_TOKEN(907, "Token is invalid or expired");
+    INVALID_TOKEN(907, "Token is invalid or expired"),
+    INVALID_CURSOR(908, "Pagination cursor is invalid"),
+    INVALID_PAGE_SIZE(909, "Page size is invalid"),
+    INVALID_REFRESH_TOKEN(910, "Refresh token is invalid, expired or already used"),
+    TOO_MANY_REQUESTS(911, "Too many attempts, please try again later"),
+    SERVER_BUSY(912, "Server is busy, please try again shortly");
 
     // ===== Email Errors =====
     // EMAIL_SEND_FAILURE(1000, "Failed to send email");
@@ -1,5 +1,24 @@
 package hypercell.final_project.football_places_booking_system.model.enums;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum MatchStatus {
-    CONFIRMED, CANCELLED, PENDING_PLAYERS, PENDING_PAYMENT
+    CONFIRMED, CANCELLED, PENDING_PLAYERS, PENDING_PAYMENT;
+
+    // Allowed status changes. A cancelled match can only come back through an admin confirmation.
+    private static final Map<MatchStatus, Set<MatchStatus>> TRANSITIONS = new EnumMap<>(MatchStatus.class);
+
+    static {
+        TRANSITIONS.put(PENDING_PLAYERS, EnumSet.of(PENDING_PAYMENT, CONFIRMED, CANCELLED));
+        TRANSITIONS.put(PENDING_PAYMENT, EnumSet.of(CONFIRMED, CANCELLED));
+        TRANSITIONS.put(CONFIRMED, EnumSet.of(CANCELLED));
+        TRANSITIONS.put(CANCELLED, EnumSet.of(CONFIRMED));
+    }
+
+    public boolean canTransitionTo(MatchStatus next) {
+        return TRANSITIONS.get(this).contains(next);
+    }
 }
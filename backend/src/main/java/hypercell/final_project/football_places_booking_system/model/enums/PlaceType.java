@@ -1,6 +1,15 @@
 package hypercell.final_project.football_places_booking_system.model.enums;
 
+import lombok.Getter;
+
+@Getter
 public enum PlaceType {
-    FIVE, SEVEN ,ELEVEN
-}
+    FIVE(10), SEVEN(14), ELEVEN(22);
 
+    // Maximum number of accepted players in a match at a place of this type
+    private final int capacity;
+
+    PlaceType(int capacity) {
+        this.capacity = capacity;
+    }
+}
@@ -1,14 +1,29 @@
 package hypercell.final_project.football_places_booking_system.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import hypercell.final_project.football_places_booking_system.model.db.BookingMatch;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingIntervalDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingResponseDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.OpenMatchDTO;
+import hypercell.final_project.football_places_booking_system.model.enums.MatchStatus;
+import hypercell.final_project.football_places_booking_system.model.enums.ParticipantStatus;
+import hypercell.final_project.football_places_booking_system.model.enums.TeamRole;
+import hypercell.final_project.football_places_booking_system.model.enums.TeamStatus;
 
 @Repository
 public interface BookingMatchRepository extends JpaRepository<BookingMatch, UUID> {
@@ -16,17 +31,184 @@ public interface BookingMatchRepository extends JpaRepository<BookingMatch, UUID
     List<BookingMatch> findByUserId(UUID userId);
     List<BookingMatch> findByPlaceId(UUID placeId);
 
+
     @Query("SELECT bm FROM BookingMatch bm " +
             "LEFT JOIN FETCH bm.team " +
             "LEFT JOIN FETCH bm.place " +
-            "LEFT JOIN FETCH bm.user") // ✅ added this line
-    List<BookingMatch> findAllWithDetails();
+            "WHERE bm.user.id = :userId")
+    List<BookingMatch> findByUserWithDetails(@Param("userId") UUID userId);
 
+    @Query("SELECT bm FROM BookingMatch bm " +
+            "LEFT JOIN FETCH bm.team " +
+            "LEFT JOIN FETCH bm.place " +
+            "LEFT JOIN FETCH bm.user " +
+            "WHERE bm.place.id = :placeId AND bm.startTime < :to AND bm.endTime > :from " +
+            "ORDER BY bm.startTime")
+    List<BookingMatch> findByPlaceIdInWindow(@Param("placeId") UUID placeId,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to);
 
     @Query("SELECT bm FROM BookingMatch bm " +
             "LEFT JOIN FETCH bm.team " +
             "LEFT JOIN FETCH bm.place " +
-            "WHERE bm.user.id = :userId")
-    List<BookingMatch> findByUserWithDetails(@Param("userId") UUID userId);
-}
+            "LEFT JOIN FETCH bm.user " +
+            "WHERE bm.team.id = :teamId AND bm.startTime < :to AND bm.endTime > :from " +
+            "ORDER BY bm.startTime")
+    List<BookingMatch> findByTeamIdInWindow(@Param("teamId") UUID teamId,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
+
+    // Bookings of a place ending after the given time, leaving out the excluded status (normally CANCELLED)
+    @Query("SELECT bm FROM BookingMatch bm " +
+            "LEFT JOIN FETCH bm.team " +
+            "LEFT JOIN FETCH bm.place " +
+            "LEFT JOIN FETCH bm.user " +
+            "WHERE bm.place.id = :placeId AND bm.status <> :excluded AND bm.endTime > :after " +
+            "ORDER BY bm.startTime")
+    List<BookingMatch> findUpcomingByPlaceId(@Param("placeId") UUID placeId,
+                                             @Param("excluded") MatchStatus excluded,
+                                             @Param("after") LocalDateTime after);
 
+    // Bookings of a team ending after the given time, leaving out the excluded status (normally CANCELLED)
+    @Query("SELECT bm FROM BookingMatch bm " +
+            "LEFT JOIN FETCH bm.team " +
+            "LEFT JOIN FETCH bm.place " +
+            "LEFT JOIN FETCH bm.user " +
+            "WHERE bm.team.id = :teamId AND bm.status <> :excluded AND bm.endTime > :after " +
+            "ORDER BY bm.startTime")
+    List<BookingMatch> findUpcomingByTeamId(@Param("teamId") UUID teamId,
+                                            @Param("excluded") MatchStatus excluded,
+                                            @Param("after") LocalDateTime after);
+
+    // Slots of a place overlapping [from, to), leaving out the excluded status (normally CANCELLED)
+    @Query("SELECT new hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingIntervalDTO(" +
+            "bm.id, bm.place.id, bm.team.id, bm.startTime, bm.endTime) " +
+            "FROM BookingMatch bm " +
+            "WHERE bm.place.id = :placeId AND bm.status <> :excluded " +
+            "AND bm.startTime < :to AND bm.endTime > :from")
+    List<BookingIntervalDTO> findIntervalsByPlaceIdInWindow(@Param("placeId") UUID placeId,
+                                                            @Param("excluded") MatchStatus excluded,
+                                                            @Param("from") LocalDateTime from,
+                                                            @Param("to") LocalDateTime to);
+
+    // Slots of a team overlapping [from, to), leaving out the excluded status (normally CANCELLED)
+    @Query("SELECT new hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingIntervalDTO(" +
+            "bm.id, bm.place.id, bm.team.id, bm.startTime, bm.endTime) " +
+            "FROM BookingMatch bm " +
+            "WHERE bm.team.id = :teamId AND bm.status <> :excluded " +
+            "AND bm.startTime < :to AND bm.endTime > :from")
+    List<BookingIntervalDTO> findIntervalsByTeamIdInWindow(@Param("teamId") UUID teamId,
+                                                           @Param("excluded") MatchStatus excluded,
+                                                           @Param("from") LocalDateTime from,
+                                                           @Param("to") LocalDateTime to);
+
+    // Slots of all places that end after the given time, leaving out the excluded status
+    @Query("SELECT new hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingIntervalDTO(" +
+            "bm.id, bm.place.id, bm.team.id, bm.startTime, bm.endTime) " +
+            "FROM BookingMatch bm " +
+            "WHERE bm.status <> :excluded AND bm.endTime > :from")
+    List<BookingIntervalDTO> findUpcomingIntervals(@Param("excluded") MatchStatus excluded,
+                                                   @Param("from") LocalDateTime from);
+
+    // Matches in the given status starting after :from, with their unanswered invitation count
+    @Query("SELECT new hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.OpenMatchDTO(" +
+            "bm.id, p.id, p.name, p.placeType, t.id, t.name, bm.startTime, bm.endTime, bm.acceptedCount, " +
+            "(SELECT COUNT(mp) FROM MatchParticipant mp WHERE mp.bookingMatch = bm AND mp.status = :invited)) " +
+            "FROM BookingMatch bm " +
+            "JOIN bm.place p " +
+            "LEFT JOIN bm.team t " +
+            "WHERE bm.status = :status AND bm.startTime > :from AND p.placeType IS NOT NULL")
+    List<OpenMatchDTO> findOpenMatches(@Param("status") MatchStatus status,
+                                       @Param("invited") ParticipantStatus invited,
+                                       @Param("from") LocalDateTime from);
+
+    // One keyset page of bookings ordered by (startTime, id), starting after the (afterStart, afterId) cursor
+    @Query("SELECT new hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingResponseDTO(" +
+            "bm.id, bm.startTime, bm.endTime, bm.status, u.id, u.username, t.id, t.name, p.id, p.name) " +
+            "FROM BookingMatch bm " +
+            "LEFT JOIN bm.user u " +
+            "LEFT JOIN bm.team t " +
+            "LEFT JOIN bm.place p " +
+            "WHERE (:status IS NULL OR bm.status = :status) " +
+            "AND (:placeId IS NULL OR p.id = :placeId) " +
+            "AND (:teamId IS NULL OR t.id = :teamId) " +
+            "AND bm.startTime >= :from AND bm.startTime < :to " +
+            "AND (bm.startTime > :afterStart OR (bm.startTime = :afterStart AND bm.id > :afterId)) " +
+            "ORDER BY bm.startTime, bm.id")
+    List<BookingResponseDTO> findPage(@Param("status") MatchStatus status,
+                                      @Param("placeId") UUID placeId,
+                                      @Param("teamId") UUID teamId,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to,
+                                      @Param("afterStart") LocalDateTime afterStart,
+                                      @Param("afterId") UUID afterId,
+                                      Limit limit);
+
+    // Bookings of the teams a user belongs to with the given role and membership status, ending after :from
+    @Query("SELECT bm FROM BookingMatch bm " +
+            "JOIN FETCH bm.team t " +
+            "LEFT JOIN FETCH bm.place " +
+            "LEFT JOIN FETCH bm.user " +
+            "WHERE bm.endTime > :from AND EXISTS (" +
+            "SELECT 1 FROM TeamMember tm " +
+            "WHERE tm.team = t AND tm.user.id = :userId AND tm.role = :role AND tm.status = :status) " +
+            "ORDER BY bm.startTime, bm.id")
+    List<BookingMatch> findByTeamMember(@Param("userId") UUID userId,
+                                        @Param("role") TeamRole role,
+                                        @Param("status") TeamStatus status,
+                                        @Param("from") LocalDateTime from,
+                                        Pageable pageable);
+
+    /**
+     * Take one seat of a match if it is not full and its status is one of `open`, moving it from
+     * `pending` to `full` status when the last seat is taken. Returns 0 when the match is
+     * already full or in another status.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE BookingMatch bm SET bm.acceptedCount = bm.acceptedCount + 1, bm.version = bm.version + 1, " +
+            "bm.status = CASE WHEN bm.acceptedCount + 1 >= :capacity AND bm.status = :pending " +
+            "THEN :full ELSE bm.status END " +
+            "WHERE bm.id = :id AND bm.acceptedCount < :capacity AND bm.status IN :open")
+    int incrementAcceptedCount(@Param("id") UUID id,
+                               @Param("capacity") int capacity,
+                               @Param("open") Collection<MatchStatus> open,
+                               @Param("pending") MatchStatus pending,
+                               @Param("full") MatchStatus full);
+
+    // Current status read from the table, not from the persistence context
+    @Query("SELECT bm.status FROM BookingMatch bm WHERE bm.id = :id")
+    Optional<MatchStatus> findStatusById(@Param("id") UUID id);
+
+    // Move a match from the expected status to the next one. Returns 0 if its status changed meanwhile.
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE BookingMatch bm SET bm.status = :status, bm.version = bm.version + 1 " +
+            "WHERE bm.id = :id AND bm.status = :expected")
+    int updateStatusIfCurrent(@Param("id") UUID id,
+                              @Param("expected") MatchStatus expected,
+                              @Param("status") MatchStatus status);
+
+    // Slots of the matches still in one of the given statuses that started before :before, oldest first
+    @Query("SELECT new hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingIntervalDTO(" +
+            "bm.id, bm.place.id, bm.team.id, bm.startTime, bm.endTime) " +
+            "FROM BookingMatch bm " +
+            "WHERE bm.status IN :statuses AND bm.startTime < :before " +
+            "ORDER BY bm.startTime, bm.id")
+    List<BookingIntervalDTO> findIntervalsByStatusInStartingBefore(@Param("statuses") Collection<MatchStatus> statuses,
+                                                                   @Param("before") LocalDateTime before,
+                                                                   Limit limit);
+
+    // Move the given matches to the new status, skipping those no longer in one of the expected statuses
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE BookingMatch bm SET bm.status = :status, bm.version = bm.version + 1 " +
+            "WHERE bm.id IN :ids AND bm.status IN :expected")
+    int updateStatusIfCurrentIn(@Param("ids") Collection<UUID> ids,
+                                @Param("expected") Collection<MatchStatus> expected,
+                                @Param("status") MatchStatus status);
+
+    @Query("SELECT bm.id FROM BookingMatch bm WHERE bm.id IN :ids AND bm.status = :status")
+    Set<UUID> findIdsByIdInAndStatus(@Param("ids") Collection<UUID> ids,
+                                     @Param("status") MatchStatus status);
+}
@@ -1,12 +1,25 @@
 package hypercell.final_project.football_places_booking_system.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import hypercell.final_project.football_places_booking_system.model.db.MatchParticipant;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingDetailRespDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingIntervalDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.MatchPartDTOs.UserMatchResponseDTO;
+import hypercell.final_project.football_places_booking_system.model.enums.MatchStatus;
+import hypercell.final_project.football_places_booking_system.model.enums.ParticipantStatus;
 
 // Repository for accessing match participant data in the database.
 // Provides methods to find participants by match or user.
@@ -15,4 +28,106 @@ public interface MatchParticipantRepository extends JpaRepository<MatchParticipa
 
     Optional<Object> findByBookingMatchIdAndUserId(UUID id, UUID id1);
     List<MatchParticipant> findByUserId(UUID userId);
+
+    // Matches of a participant as ready-made DTOs, one keyset page per query. Upcoming pages run
+    // forward by (startTime, id) over matches ending after :endAfter, past pages run backwards
+    // over matches that ended by :endBy, so the most recent match comes first.
+    @Query("SELECT new hypercell.final_project.football_places_booking_system.model.dto.MatchPartDTOs.UserMatchResponseDTO(" +
+            "bm.id, mp.id, t.id, t.name, p.id, p.name, bm.startTime, bm.endTime, bm.status, mp.status) " +
+            "FROM MatchParticipant mp " +
+            "JOIN mp.bookingMatch bm " +
+            "LEFT JOIN bm.team t " +
+            "LEFT JOIN bm.place p " +
+            "WHERE mp.user.id = :userId AND bm.endTime > :endAfter " +
+            "AND (bm.startTime > :afterStart OR (bm.startTime = :afterStart AND bm.id > :afterId)) " +
+            "ORDER BY bm.startTime, bm.id")
+    List<UserMatchResponseDTO> findUpcomingUserMatches(@Param("userId") UUID userId,
+                                                       @Param("endAfter") LocalDateTime endAfter,
+                                                       @Param("afterStart") LocalDateTime afterStart,
+                                                       @Param("afterId") UUID afterId,
+                                                       Limit limit);
+
+    @Query("SELECT new hypercell.final_project.football_places_booking_system.model.dto.MatchPartDTOs.UserMatchResponseDTO(" +
+            "bm.id, mp.id, t.id, t.name, p.id, p.name, bm.startTime, bm.endTime, bm.status, mp.status) " +
+            "FROM MatchParticipant mp " +
+            "JOIN mp.bookingMatch bm " +
+            "LEFT JOIN bm.team t " +
+            "LEFT JOIN bm.place p " +
+            "WHERE mp.user.id = :userId AND bm.endTime <= :endBy " +
+            "AND (bm.startTime < :beforeStart OR (bm.startTime = :beforeStart AND bm.id < :beforeId)) " +
+            "ORDER BY bm.startTime DESC, bm.id DESC")
+    List<UserMatchResponseDTO> findPastUserMatches(@Param("userId") UUID userId,
+                                                   @Param("endBy") LocalDateTime endBy,
+                                                   @Param("beforeStart") LocalDateTime beforeStart,
+                                                   @Param("beforeId") UUID beforeId,
+                                                   Limit limit);
+
+    @Query("SELECT new hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingDetailRespDTO(" +
+            "bm.id, bm.startTime, bm.endTime, bm.status, bm.createdAt, p.id, p.name, p.placeType, " +
+            "t.id, t.name, u.id, u.username) " +
+            "FROM MatchParticipant mp " +
+            "JOIN mp.bookingMatch bm " +
+            "LEFT JOIN bm.team t " +
+            "LEFT JOIN bm.place p " +
+            "LEFT JOIN bm.user u " +
+            "WHERE mp.user.id = :userId AND bm.endTime > :endAfter " +
+            "AND (bm.startTime > :afterStart OR (bm.startTime = :afterStart AND bm.id > :afterId)) " +
+            "ORDER BY bm.startTime, bm.id")
+    List<BookingDetailRespDTO> findUpcomingUserMatchDetails(@Param("userId") UUID userId,
+                                                            @Param("endAfter") LocalDateTime endAfter,
+                                                            @Param("afterStart") LocalDateTime afterStart,
+                                                            @Param("afterId") UUID afterId,
+                                                            Limit limit);
+
+    @Query("SELECT new hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingDetailRespDTO(" +
+            "bm.id, bm.startTime, bm.endTime, bm.status, bm.createdAt, p.id, p.name, p.placeType, " +
+            "t.id, t.name, u.id, u.username) " +
+            "FROM MatchParticipant mp " +
+            "JOIN mp.bookingMatch bm " +
+            "LEFT JOIN bm.team t " +
+            "LEFT JOIN bm.place p " +
+            "LEFT JOIN bm.user u " +
+            "WHERE mp.user.id = :userId AND bm.endTime <= :endBy " +
+            "AND (bm.startTime < :beforeStart OR (bm.startTime = :beforeStart AND bm.id < :beforeId)) " +
+            "ORDER BY bm.startTime DESC, bm.id DESC")
+    List<BookingDetailRespDTO> findPastUserMatchDetails(@Param("userId") UUID userId,
+                                                        @Param("endBy") LocalDateTime endBy,
+                                                        @Param("beforeStart") LocalDateTime beforeStart,
+                                                        @Param("beforeId") UUID beforeId,
+                                                        Limit limit);
+
+    // Slots of the matches a user has answered with the given status, ending after :from and starting before :to
+    @Query("SELECT new hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingIntervalDTO(" +
+            "bm.id, bm.place.id, bm.team.id, bm.startTime, bm.endTime) " +
+            "FROM MatchParticipant mp " +
+            "JOIN mp.bookingMatch bm " +
+            "WHERE mp.user.id = :userId AND mp.status = :status AND bm.status <> :excluded " +
+            "AND bm.endTime > :from AND bm.startTime < :to")
+    List<BookingIntervalDTO> findIntervalsByUserIdInWindow(@Param("userId") UUID userId,
+                                                           @Param("status") ParticipantStatus status,
+                                                           @Param("excluded") MatchStatus excluded,
+                                                           @Param("from") LocalDateTime from,
+                                                           @Param("to") LocalDateTime to);
+
+    @Query("SELECT mp.user.id FROM MatchParticipant mp WHERE mp.bookingMatch.id = :bookingMatchId AND mp.status = :status")
+    List<UUID> findUserIdsByBookingMatchIdAndStatus(@Param("bookingMatchId") UUID bookingMatchId,
+                                                    @Param("status") ParticipantStatus status);
+
+    @Query("SELECT mp.user.id FROM MatchParticipant mp WHERE mp.bookingMatch.id = :bookingMatchId")
+    Set<UUID> findUserIdsByBookingMatchId(@Param("bookingMatchId") UUID bookingMatchId);
+
+    @Query("SELECT mp.user.id FROM MatchParticipant mp " +
+            "WHERE mp.bookingMatch.id = :bookingMatchId AND mp.user.id IN :userIds")
+    Set<UUID> findUserIdsByBookingMatchIdAndUserIdIn(@Param("bookingMatchId") UUID bookingMatchId,
+                                                      @Param("userIds") Collection<UUID> userIds);
+
+    // Record a response only if the participant is still in the expected status. Returns 0 otherwise.
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE MatchParticipant mp SET mp.status = :status, mp.respondedAt = :respondedAt " +
+            "WHERE mp.id = :id AND mp.status = :expected")
+    int updateStatusIfCurrent(@Param("id") UUID id,
+                              @Param("expected") ParticipantStatus expected,
+                              @Param("status") ParticipantStatus status,
+                              @Param("respondedAt") LocalDateTime respondedAt);
 }
@@ -29,6 +29,10 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, UUID> {
     List<TeamMember> findByUserIdAndStatus(UUID id, TeamStatus status);
     List<TeamMember> findByTeamAndStatus(Team team, TeamStatus status);
     List<TeamMember> findByUserId(UUID userId);
+
+    // Users of a team roster in one join, without loading the team and inviter of every member
+    @Query("SELECT tm.user FROM TeamMember tm WHERE tm.team.id = :teamId AND tm.status = :status")
+    List<User> findUsersByTeamIdAndStatus(@Param("teamId") UUID teamId, @Param("status") TeamStatus status);
     
     @Modifying
     @Transactional
@@ -36,6 +40,9 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, UUID> {
     void deleteAllByTeamId(@Param("teamId") UUID teamId);
     
     boolean existsByUserIdAndTeamIdAndRole(UUID userId, UUID teamId, TeamRole role);
+
+    @Query("SELECT tm.role FROM TeamMember tm WHERE tm.user.id = :userId AND tm.team.id = :teamId")
+    Optional<TeamRole> findRoleByUserIdAndTeamId(@Param("userId") UUID userId, @Param("teamId") UUID teamId);
     UUID findTeamMemberIdByUserIdAndTeamId(UUID userId, UUID teamId);
     Optional<TeamMember> findByTeamIdAndUserId(UUID teamId, UUID userId);
 
@@ -0,0 +1,27 @@
+package hypercell.final_project.football_places_booking_system.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import hypercell.final_project.football_places_booking_system.model.db.TokenRevocation;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, UUID> {
+    boolean existsByTokenId(UUID tokenId);
+
+    // Whether every token of the user issued in the second :issuedAt or earlier was revoked
+    boolean existsByUserIdAndTokenIdIsNullAndRevokedAtGreaterThan(UUID userId, LocalDateTime issuedAt);
+
+    List<TokenRevocation> findByExpiresAtAfter(LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TokenRevocation r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
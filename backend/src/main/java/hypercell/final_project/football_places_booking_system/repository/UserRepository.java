@@ -1,5 +1,7 @@
 package hypercell.final_project.football_places_booking_system.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,6 +17,10 @@ public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificat
     boolean existsByEmail(String email);
     User findByEmail(String username);
     Optional<User> findByEmailIgnoreCase(String email);
+
+    // Expects lower-cased emails
+    @Query("SELECT u FROM User u WHERE LOWER(u.email) IN :emails")
+    List<User> findByEmailInIgnoreCase(@Param("emails") Collection<String> emails);
     Optional<User> findById(UUID creatorid);
 
     @Query("SELECT u.username FROM User u WHERE u.id = :id")
@@ -14,6 +14,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import hypercell.final_project.football_places_booking_system.model.enums.ErrorCode;
 import hypercell.final_project.football_places_booking_system.service.Impl.CustomUserDetailsServiceImpl;
 import hypercell.final_project.football_places_booking_system.service.Impl.JwtServiceImpl;
+import hypercell.final_project.football_places_booking_system.service.Impl.TokenRevocationServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,6 +28,7 @@ public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtServiceImpl jwtService;
     private final CustomUserDetailsServiceImpl userDetailsService;
+    private final TokenRevocationServiceImpl tokenRevocationService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -34,7 +37,7 @@ public class JwtFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        String email = null;
+        Claims claims = null;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             request.setAttribute("auth_error", "MISSING_TOKEN");
@@ -45,16 +48,22 @@ public class JwtFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            email = jwtService.extractUsername(jwt);
+            claims = jwtService.extractAllClaims(jwt);
         } catch (io.jsonwebtoken.ExpiredJwtException e) {
             request.setAttribute("auth_error", "INVALID_TOKEN"); 
         }
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        // Logged out, or its user was banned or deleted
+        if (claims != null && tokenRevocationService.isRevoked(claims)) {
+            claims = null;
+            request.setAttribute("auth_error", "INVALID_TOKEN");
+        }
+
+        if (claims != null && claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UserDetails userDetails = null;
             
             try {
-                userDetails = userDetailsService.loadUserByUsername(email);
+                userDetails = userDetailsService.loadPrincipal(claims);
             } catch (UsernameNotFoundException e) {
                 response.setStatus(HttpStatus.NOT_FOUND.value());
                 response.setContentType("application/json");
@@ -12,8 +12,8 @@ import hypercell.final_project.football_places_booking_system.exception.AppExcep
 import hypercell.final_project.football_places_booking_system.model.db.User;
 import hypercell.final_project.football_places_booking_system.model.enums.TeamRole;
 import hypercell.final_project.football_places_booking_system.model.enums.UserStatus;
-import hypercell.final_project.football_places_booking_system.repository.TeamMemberRepository;
 import hypercell.final_project.football_places_booking_system.service.Interfaces.AuthService;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.TeamRoleService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 
@@ -21,7 +21,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
 
-    private final TeamMemberRepository teamMemberRepository;
+    private final TeamRoleService teamRoleService;
 
     private HttpServletRequest getCurrentRequest() {
         ServletRequestAttributes attrs = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
@@ -40,7 +40,7 @@ public class AuthServiceImpl implements AuthService {
 
         TeamRole role = TeamRole.valueOf(expectedRole);
 
-        if (teamMemberRepository.existsByUserIdAndTeamIdAndRole(user.getId(), teamId, role)) {
+        if (teamRoleService.findRole(user.getId(), teamId).filter(role::equals).isPresent()) {
             return true;
         }
 
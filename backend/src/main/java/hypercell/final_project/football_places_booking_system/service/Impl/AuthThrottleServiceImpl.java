@@ -0,0 +1,102 @@
+package hypercell.final_project.football_places_booking_system.service.Impl;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import hypercell.final_project.football_places_booking_system.exception.AppException;
+import hypercell.final_project.football_places_booking_system.exception.TooManyRequestsException;
+import hypercell.final_project.football_places_booking_system.model.enums.ErrorCode;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.AuthThrottleService;
+import hypercell.final_project.football_places_booking_system.util.TokenBucket;
+
+/**
+ * Token-bucket throttle in front of /api/auth. Login and register spend a token from the
+ * bucket of their client address and one from the bucket of the account they name, so
+ * neither one address trying many accounts nor many addresses trying one account gets more
+ * than a few password checks through. Refresh checks no password and is sent by every open
+ * session, so it spends from a separate, larger bucket per address. Each bucket map keeps
+ * its most recently used MAX_BUCKETS entries; an account under attack is used by every
+ * attempt and so keeps its bucket, however many other keys are sprayed.
+ */
+@Service
+public class AuthThrottleServiceImpl implements AuthThrottleService {
+
+    private static final Duration REFILL_PERIOD = Duration.ofMinutes(1);
+    private static final int MAX_BUCKETS = 100_000;
+
+    private final int addressCapacity;
+    private final int accountCapacity;
+    private final int refreshCapacity;
+
+    private final Map<String, TokenBucket> addressBuckets = lruMap();
+    private final Map<String, TokenBucket> accountBuckets = lruMap();
+    private final Map<String, TokenBucket> refreshBuckets = lruMap();
+    private final LongAdder throttledByAddress = new LongAdder();
+    private final LongAdder throttledByAccount = new LongAdder();
+
+    public AuthThrottleServiceImpl(
+            @Value("${app.security.auth-throttle.per-address:20}") int addressCapacity,
+            @Value("${app.security.auth-throttle.per-account:5}") int accountCapacity,
+            @Value("${app.security.auth-throttle.refresh-per-address:300}") int refreshCapacity
+    ) {
+        this.addressCapacity = addressCapacity;
+        this.accountCapacity = accountCapacity;
+        this.refreshCapacity = refreshCapacity;
+    }
+
+    @Override
+    public void check(String address, String account) throws AppException {
+        long now = System.nanoTime();
+        if (address != null && !take(addressBuckets, address, addressCapacity, now)) {
+            throttledByAddress.increment();
+            throw new TooManyRequestsException(ErrorCode.TOO_MANY_REQUESTS);
+        }
+        if (account != null && !account.isBlank()
+                && !take(accountBuckets, account.trim().toLowerCase(Locale.ROOT), accountCapacity, now)) {
+            throttledByAccount.increment();
+            throw new TooManyRequestsException(ErrorCode.TOO_MANY_REQUESTS);
+        }
+    }
+
+    @Override
+    public void checkRefresh(String address) throws AppException {
+        if (address != null && !take(refreshBuckets, address, refreshCapacity, System.nanoTime())) {
+            throttledByAddress.increment();
+            throw new TooManyRequestsException(ErrorCode.TOO_MANY_REQUESTS);
+        }
+    }
+
+    @Override
+    public long getThrottledByAddress() {
+        return throttledByAddress.sum();
+    }
+
+    @Override
+    public long getThrottledByAccount() {
+        return throttledByAccount.sum();
+    }
+
+    private boolean take(Map<String, TokenBucket> buckets, String key, int capacity, long now) {
+        TokenBucket bucket;
+        synchronized (buckets) {
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, REFILL_PERIOD, now));
+        }
+        return bucket.tryTake(now);
+    }
+
+    // Access-ordered, so the least recently used bucket is the one dropped when the map is full
+    private static Map<String, TokenBucket> lruMap() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                return size() > MAX_BUCKETS;
+            }
+        };
+    }
+}
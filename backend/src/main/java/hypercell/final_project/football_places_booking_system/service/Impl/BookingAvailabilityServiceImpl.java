@@ -0,0 +1,541 @@
+package hypercell.final_project.football_places_booking_system.service.Impl;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import hypercell.final_project.football_places_booking_system.exception.AppException;
+import hypercell.final_project.football_places_booking_system.exception.ValidationException;
+import hypercell.final_project.football_places_booking_system.model.db.BookingMatch;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingIntervalDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.SlotSuggestionDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.PlaceDTO;
+import hypercell.final_project.football_places_booking_system.model.enums.ErrorCode;
+import hypercell.final_project.football_places_booking_system.model.enums.MatchStatus;
+import hypercell.final_project.football_places_booking_system.model.enums.PlaceType;
+import hypercell.final_project.football_places_booking_system.repository.BookingMatchRepository;
+import hypercell.final_project.football_places_booking_system.repository.PlaceRepository;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.BookingAvailabilityService;
+import hypercell.final_project.football_places_booking_system.util.IntervalSchedule;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory index of the non-cancelled bookings of every place.
+ * A place's schedule is loaded from the database the first time it is needed and is then
+ * kept in sync by the booking service on create, confirm and cancel, so availability
+ * checks never have to scan the booking table. Only bookings ending after the index
+ * horizon (the start of the day the service started) are loaded; older history is
+ * read from the database on the rare occasions it is asked for.
+ *
+ * Reservations are serialized per place through a fixed set of striped locks, so two
+ * requests for the same place cannot both pass the check before either is saved. The
+ * ex_booking_match_place_time exclusion constraint backs this up across instances.
+ *
+ * Daily busy/free grids (96 slots of 15 minutes) are derived from the schedule and cached
+ * until a booking touching that day is registered or released.
+ *
+ * A catalog of all places is kept next to the schedules, and both are warmed up at startup
+ * with one query each, so searching for free places never issues per-place queries.
+ *
+ * Short-lived slot holds live in the same schedules as bookings, so a held slot is busy for
+ * everyone except the holder, whose booking takes the hold over. Holds are never saved.
+ *
+ * Every team has a schedule of its own as well, so a team cannot be booked on two pitches at
+ * once. A reservation takes the team's lock after the place's lock (never the other way
+ * round) and checks both schedules in the same step.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingAvailabilityServiceImpl implements BookingAvailabilityService {
+
+    private final BookingMatchRepository bookingMatchRepository;
+    private final PlaceRepository placeRepository;
+
+    // place id -> place details, used to search places without hitting the database
+    private final Map<UUID, PlaceDTO> places = new ConcurrentHashMap<>();
+    private volatile boolean placesLoaded = false;
+
+    // A booking (id = booking id) or a hold (id = hold id, owner = holding user) in a schedule
+    private record Slot(UUID id, UUID ownerId, boolean hold) {}
+
+    // place id -> non-cancelled bookings and active holds of that place
+    private final Map<UUID, IntervalSchedule<Slot>> schedules = new ConcurrentHashMap<>();
+
+    // team id -> ids of the non-cancelled bookings of that team
+    private final Map<UUID, IntervalSchedule<UUID>> teamSchedules = new ConcurrentHashMap<>();
+
+    private static final LocalDateTime END_OF_TIME = LocalDateTime.of(9999, 12, 31, 23, 59);
+    private final LocalDateTime indexHorizon = LocalDate.now().atStartOfDay();
+
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    private static final int MAX_CACHED_GRIDS = 10_000;
+    private static final Duration SUGGESTION_WINDOW = Duration.ofHours(3);
+
+    private record GridKey(UUID placeId, LocalDate date) {}
+
+    // (place, day) -> bitmap of busy slots, bit i set when slot i overlaps a booking
+    private final Map<GridKey, long[]> dailyGrids = new ConcurrentHashMap<>();
+
+    private static final int LOCK_STRIPES = 64;
+    private final ReentrantLock[] placeLocks = createLocks(LOCK_STRIPES);
+    private final ReentrantLock[] teamLocks = createLocks(LOCK_STRIPES);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        loadPlaces();
+
+        List<BookingIntervalDTO> upcoming = bookingMatchRepository.findUpcomingIntervals(MatchStatus.CANCELLED, indexHorizon);
+        Map<UUID, List<BookingIntervalDTO>> byPlace = upcoming.stream()
+                .collect(Collectors.groupingBy(BookingIntervalDTO::placeId));
+        Map<UUID, List<BookingIntervalDTO>> byTeam = upcoming.stream()
+                .filter(interval -> interval.teamId() != null)
+                .collect(Collectors.groupingBy(BookingIntervalDTO::teamId));
+
+        for (UUID placeId : places.keySet()) {
+            schedules.putIfAbsent(placeId, buildSchedule(placeId, byPlace.getOrDefault(placeId, List.of())));
+        }
+        byTeam.forEach((teamId, intervals) -> teamSchedules.putIfAbsent(teamId, buildTeamSchedule(teamId, intervals)));
+
+        log.info("Availability index warmed up with {} places", places.size());
+    }
+
+    @Override
+    public boolean isAvailable(UUID placeId, LocalDateTime startTime, LocalDateTime endTime) {
+        return scheduleFor(placeId).isFree(startTime, endTime);
+    }
+
+    /**
+     * Check that the match's slot is free and its team is not playing elsewhere, and save it
+     * while holding the place's and the team's locks. The saved match is added to both
+     * schedules before the locks are released.
+     */
+    @Override
+    public BookingMatch reserve(BookingMatch match) throws AppException {
+        UUID placeId = match.getPlace().getId();
+        ReentrantLock lock = lockFor(placeId);
+        ReentrantLock teamLock = teamLockFor(match);
+
+        lock.lock();
+        teamLock.lock();
+        try {
+            IntervalSchedule<Slot> schedule = scheduleFor(placeId);
+            if (!isClaimable(schedule, match)) {
+                throw new ValidationException(ErrorCode.TIME_SLOT_UNAVAILABLE);
+            }
+            if (!isTeamFree(match)) {
+                throw new ValidationException(ErrorCode.TEAM_TIME_CONFLICT);
+            }
+
+            BookingMatch saved;
+            try {
+                saved = bookingMatchRepository.save(match);
+            } catch (DataIntegrityViolationException e) {
+                // Another instance won the slot, rejected by the exclusion constraint
+                log.warn("Booking for place {} rejected by the database: {}", placeId, e.getMessage());
+                throw new ValidationException(ErrorCode.TIME_SLOT_UNAVAILABLE);
+            }
+
+            removeOwnHolds(schedule, saved);
+            register(saved);
+            return saved;
+        } finally {
+            teamLock.unlock();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reserve several slots of the same place in one pass. Every candidate is checked against
+     * the schedule and the candidates accepted before it, the accepted ones are inserted with a
+     * single batched saveAll, and the result lists the saved match for each accepted candidate
+     * and null for each rejected one, in input order. All candidates belong to the same team,
+     * and the ones clashing with another booking of the team are rejected too.
+     */
+    @Override
+    public List<BookingMatch> reserveAll(List<BookingMatch> matches) throws AppException {
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+
+        UUID placeId = matches.get(0).getPlace().getId();
+        UUID teamId = teamOf(matches.get(0));
+        ReentrantLock lock = lockFor(placeId);
+        ReentrantLock teamLock = teamLockFor(matches.get(0));
+
+        lock.lock();
+        teamLock.lock();
+        try {
+            IntervalSchedule<Slot> schedule = scheduleFor(placeId);
+            IntervalSchedule<BookingMatch> batch = new IntervalSchedule<>();
+            List<BookingMatch> accepted = new ArrayList<>();
+            List<BookingMatch> result = new ArrayList<>(matches.size());
+
+            for (BookingMatch match : matches) {
+                if (!match.getPlace().getId().equals(placeId)) {
+                    throw new ValidationException(ErrorCode.INVALID_PLACE_ID);
+                }
+                if (!Objects.equals(teamOf(match), teamId)) {
+                    throw new ValidationException(ErrorCode.INVALID_TEAM_ID);
+                }
+                if (isClaimable(schedule, match) && isTeamFree(match)
+                        && batch.add(match.getStartTime(), match.getEndTime(), match)) {
+                    accepted.add(match);
+                    result.add(match);
+                } else {
+                    result.add(null);
+                }
+            }
+
+            try {
+                bookingMatchRepository.saveAll(accepted);
+            } catch (DataIntegrityViolationException e) {
+                // The batch runs in one transaction, so nothing was saved
+                log.warn("Booking series for place {} rejected by the database: {}", placeId, e.getMessage());
+                throw new ValidationException(ErrorCode.TIME_SLOT_UNAVAILABLE);
+            }
+
+            // New entities are persisted in place, so the result already holds the saved matches
+            for (BookingMatch match : accepted) {
+                removeOwnHolds(schedule, match);
+                register(match);
+            }
+            return result;
+        } finally {
+            teamLock.unlock();
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean register(BookingMatch match) {
+        UUID placeId = match.getPlace().getId();
+        boolean added = scheduleFor(placeId).add(match.getStartTime(), match.getEndTime(),
+                new Slot(match.getId(), ownerOf(match), false));
+        evictGrids(placeId, match.getStartTime(), match.getEndTime());
+
+        UUID teamId = teamOf(match);
+        if (teamId != null) {
+            teamScheduleFor(teamId).add(match.getStartTime(), match.getEndTime(), match.getId());
+        }
+        return added;
+    }
+
+    @Override
+    public void release(BookingMatch match) {
+        UUID placeId = match.getPlace().getId();
+        scheduleFor(placeId).remove(match.getStartTime(), slot -> !slot.hold() && slot.id().equals(match.getId()));
+        evictGrids(placeId, match.getStartTime(), match.getEndTime());
+
+        UUID teamId = teamOf(match);
+        if (teamId != null) {
+            teamScheduleFor(teamId).remove(match.getStartTime(), match.getId()::equals);
+        }
+    }
+
+    @Override
+    public boolean hold(UUID placeId, LocalDateTime startTime, LocalDateTime endTime, UUID holdId, UUID ownerId) {
+        ReentrantLock lock = lockFor(placeId);
+
+        lock.lock();
+        try {
+            boolean added = scheduleFor(placeId).add(startTime, endTime, new Slot(holdId, ownerId, true));
+            if (added) {
+                evictGrids(placeId, startTime, endTime);
+            }
+            return added;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean releaseHold(UUID placeId, LocalDateTime startTime, LocalDateTime endTime, UUID holdId) {
+        boolean removed = scheduleFor(placeId).remove(startTime, slot -> slot.hold() && slot.id().equals(holdId));
+        if (removed) {
+            evictGrids(placeId, startTime, endTime);
+        }
+        return removed;
+    }
+
+    // A slot can be booked if everything overlapping it is a hold of the booking user.
+    private boolean isClaimable(IntervalSchedule<Slot> schedule, BookingMatch match) {
+        UUID ownerId = ownerOf(match);
+        return schedule.overlapping(match.getStartTime(), match.getEndTime()).stream()
+                .allMatch(interval -> interval.value().hold() && ownerId != null
+                        && ownerId.equals(interval.value().ownerId()));
+    }
+
+    private void removeOwnHolds(IntervalSchedule<Slot> schedule, BookingMatch match) {
+        for (IntervalSchedule.Interval<Slot> interval : schedule.overlapping(match.getStartTime(), match.getEndTime())) {
+            schedule.remove(interval.start(), interval.value()::equals);
+        }
+    }
+
+    private static UUID ownerOf(BookingMatch match) {
+        return match.getUser() != null ? match.getUser().getId() : null;
+    }
+
+    // A team is free if none of its other bookings overlaps the match
+    private boolean isTeamFree(BookingMatch match) {
+        UUID teamId = teamOf(match);
+        return teamId == null || teamScheduleFor(teamId).overlapping(match.getStartTime(), match.getEndTime()).stream()
+                .allMatch(interval -> interval.value().equals(match.getId()));
+    }
+
+    private static UUID teamOf(BookingMatch match) {
+        return match.getTeam() != null ? match.getTeam().getId() : null;
+    }
+
+    @Override
+    public long[] getDailyBusySlots(UUID placeId, LocalDate date) {
+        if (dailyGrids.size() >= MAX_CACHED_GRIDS) {
+            dailyGrids.clear();
+        }
+        return dailyGrids.computeIfAbsent(new GridKey(placeId, date), this::buildGrid).clone();
+    }
+
+    private long[] buildGrid(GridKey key) {
+        long[] bitmap = new long[(SLOTS_PER_DAY + 63) / 64];
+        LocalDateTime dayStart = key.date().atStartOfDay();
+        LocalDateTime dayEnd = dayStart.plusDays(1);
+
+        if (dayStart.isBefore(indexHorizon)) {
+            // Days before the horizon are not in memory
+            bookingMatchRepository.findIntervalsByPlaceIdInWindow(key.placeId(), MatchStatus.CANCELLED, dayStart, dayEnd)
+                    .forEach(interval -> markBusy(bitmap, dayStart, interval.startTime(), interval.endTime()));
+        } else {
+            scheduleFor(key.placeId()).overlapping(dayStart, dayEnd)
+                    .forEach(interval -> markBusy(bitmap, dayStart, interval.start(), interval.end()));
+        }
+        return bitmap;
+    }
+
+    private static void markBusy(long[] bitmap, LocalDateTime dayStart, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime dayEnd = dayStart.plusDays(1);
+        LocalDateTime from = start.isBefore(dayStart) ? dayStart : start;
+        LocalDateTime to = end.isAfter(dayEnd) ? dayEnd : end;
+
+        int firstSlot = (int) (Duration.between(dayStart, from).toMinutes() / SLOT_MINUTES);
+        int lastSlot = (int) ((Duration.between(dayStart, to).toMinutes() + SLOT_MINUTES - 1) / SLOT_MINUTES);
+        for (int slot = firstSlot; slot < lastSlot; slot++) {
+            bitmap[slot / 64] |= 1L << (slot % 64);
+        }
+    }
+
+    @Override
+    public List<PlaceDTO> findAvailablePlaces(PlaceType placeType, LocalDateTime startTime, LocalDateTime endTime,
+                                              String name, String location) {
+        if (!placesLoaded) {
+            loadPlaces();
+        }
+
+        String nameFilter = name == null || name.isBlank() ? null : name.toLowerCase();
+        String locationFilter = location == null || location.isBlank() ? null : location.toLowerCase();
+
+        return places.values().stream()
+                .filter(place -> placeType == null || place.placeType() == placeType)
+                .filter(place -> nameFilter == null
+                        || (place.name() != null && place.name().toLowerCase().contains(nameFilter)))
+                .filter(place -> locationFilter == null
+                        || (place.location() != null && place.location().toLowerCase().contains(locationFilter)))
+                .filter(place -> isAvailable(place.id(), startTime, endTime))
+                .sorted(Comparator.comparing(PlaceDTO::name, Comparator.nullsLast(String::compareToIgnoreCase)))
+                .toList();
+    }
+
+    /**
+     * Nearest free windows of the same length as [startTime, endTime): on the requested place
+     * and on the other places of the same type, no further than SUGGESTION_WINDOW from the
+     * requested start. Each schedule is read with one range query, and every free gap in it
+     * offers its window closest to the requested start, aligned to SLOT_MINUTES. Closest
+     * windows come first, the requested place first among equally close ones.
+     */
+    @Override
+    public List<SlotSuggestionDTO> suggestAlternatives(UUID placeId, LocalDateTime startTime, LocalDateTime endTime,
+                                                       int limit) {
+        if (!placesLoaded) {
+            loadPlaces();
+        }
+        PlaceDTO requested = places.get(placeId);
+        if (requested == null) {
+            return List.of();
+        }
+
+        Duration length = Duration.between(startTime, endTime);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime windowStart = startTime.minus(SUGGESTION_WINDOW).isAfter(now) ? startTime.minus(SUGGESTION_WINDOW) : now;
+        LocalDateTime windowEnd = endTime.plus(SUGGESTION_WINDOW);
+
+        record Candidate(SlotSuggestionDTO slot, long distance, boolean samePlace) {}
+        List<Candidate> candidates = new ArrayList<>();
+
+        for (PlaceDTO place : places.values()) {
+            if (place.placeType() != requested.placeType()) {
+                continue;
+            }
+
+            // Walk the gaps between the busy intervals of the window
+            LocalDateTime gapStart = windowStart;
+            List<IntervalSchedule.Interval<Slot>> busy = scheduleFor(place.id()).overlapping(windowStart, windowEnd);
+            for (int i = 0; i <= busy.size(); i++) {
+                LocalDateTime gapEnd = i < busy.size() ? busy.get(i).start() : windowEnd;
+                LocalDateTime slotStart = nearestStart(startTime, length, gapStart, gapEnd);
+                if (slotStart != null) {
+                    candidates.add(new Candidate(
+                            new SlotSuggestionDTO(place.id(), place.name(), slotStart, slotStart.plus(length)),
+                            Math.abs(Duration.between(startTime, slotStart).toMinutes()),
+                            place.id().equals(placeId)));
+                }
+                if (i < busy.size() && busy.get(i).end().isAfter(gapStart)) {
+                    gapStart = busy.get(i).end();
+                }
+            }
+        }
+
+        return candidates.stream()
+                .sorted(Comparator.comparingLong(Candidate::distance)
+                        .thenComparing(candidate -> !candidate.samePlace())
+                        .thenComparing(candidate -> candidate.slot().startTime()))
+                .limit(limit)
+                .map(Candidate::slot)
+                .toList();
+    }
+
+    // Start of the window of the given length inside [gapStart, gapEnd) closest to wanted, on the slot grid
+    private static LocalDateTime nearestStart(LocalDateTime wanted, Duration length, LocalDateTime gapStart,
+                                              LocalDateTime gapEnd) {
+        LocalDateTime latest = gapEnd.minus(length);
+        if (latest.isBefore(gapStart)) {
+            return null;
+        }
+
+        LocalDateTime start;
+        if (wanted.isBefore(gapStart)) {
+            start = alignUp(gapStart);
+        } else if (wanted.isAfter(latest)) {
+            start = alignDown(latest);
+        } else {
+            return wanted;
+        }
+        return start.isBefore(gapStart) || start.isAfter(latest) ? null : start;
+    }
+
+    private static LocalDateTime alignDown(LocalDateTime time) {
+        LocalDateTime aligned = time.truncatedTo(ChronoUnit.MINUTES);
+        return aligned.minusMinutes(aligned.getMinute() % SLOT_MINUTES);
+    }
+
+    private static LocalDateTime alignUp(LocalDateTime time) {
+        LocalDateTime down = alignDown(time);
+        return down.equals(time) ? down : down.plusMinutes(SLOT_MINUTES);
+    }
+
+    @Override
+    public void putPlace(PlaceDTO place) {
+        places.put(place.id(), place);
+    }
+
+    @Override
+    public void removePlace(UUID placeId) {
+        places.remove(placeId);
+        schedules.remove(placeId);
+        dailyGrids.keySet().removeIf(key -> key.placeId().equals(placeId));
+    }
+
+    private synchronized void loadPlaces() {
+        if (placesLoaded) {
+            return;
+        }
+
+        placeRepository.findAll().forEach(place -> places.putIfAbsent(place.getId(), new PlaceDTO(
+                place.getId(),
+                place.getName(),
+                place.getDescription(),
+                place.getLocation(),
+                place.getPlaceType(),
+                place.getImageUrl()
+        )));
+        placesLoaded = true;
+    }
+
+    private void evictGrids(UUID placeId, LocalDateTime startTime, LocalDateTime endTime) {
+        for (LocalDate day = startTime.toLocalDate(); day.atStartOfDay().isBefore(endTime); day = day.plusDays(1)) {
+            dailyGrids.remove(new GridKey(placeId, day));
+        }
+    }
+
+    private ReentrantLock lockFor(UUID placeId) {
+        return placeLocks[Math.floorMod(placeId.hashCode(), placeLocks.length)];
+    }
+
+    // Matches without a team share one stripe, they have nothing to check it against anyway
+    private ReentrantLock teamLockFor(BookingMatch match) {
+        UUID teamId = teamOf(match);
+        return teamLocks[teamId != null ? Math.floorMod(teamId.hashCode(), teamLocks.length) : 0];
+    }
+
+    private static ReentrantLock[] createLocks(int count) {
+        ReentrantLock[] locks = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    private IntervalSchedule<Slot> scheduleFor(UUID placeId) {
+        return schedules.computeIfAbsent(placeId, this::loadSchedule);
+    }
+
+    private IntervalSchedule<Slot> loadSchedule(UUID placeId) {
+        IntervalSchedule<Slot> schedule = buildSchedule(placeId, bookingMatchRepository
+                .findIntervalsByPlaceIdInWindow(placeId, MatchStatus.CANCELLED, indexHorizon, END_OF_TIME));
+
+        log.debug("Loaded {} bookings into the schedule of place {}", schedule.size(), placeId);
+        return schedule;
+    }
+
+    private IntervalSchedule<Slot> buildSchedule(UUID placeId, List<BookingIntervalDTO> intervals) {
+        IntervalSchedule<Slot> schedule = new IntervalSchedule<>();
+
+        for (BookingIntervalDTO interval : intervals) {
+            if (!schedule.add(interval.startTime(), interval.endTime(), new Slot(interval.id(), null, false))) {
+                log.warn("Booking {} overlaps another booking of place {}", interval.id(), placeId);
+            }
+        }
+        return schedule;
+    }
+
+    private IntervalSchedule<UUID> teamScheduleFor(UUID teamId) {
+        return teamSchedules.computeIfAbsent(teamId, id -> buildTeamSchedule(id, bookingMatchRepository
+                .findIntervalsByTeamIdInWindow(id, MatchStatus.CANCELLED, indexHorizon, END_OF_TIME)));
+    }
+
+    private IntervalSchedule<UUID> buildTeamSchedule(UUID teamId, List<BookingIntervalDTO> intervals) {
+        IntervalSchedule<UUID> schedule = new IntervalSchedule<>();
+
+        for (BookingIntervalDTO interval : intervals) {
+            if (!schedule.add(interval.startTime(), interval.endTime(), interval.id())) {
+                log.warn("Booking {} overlaps another booking of team {}", interval.id(), teamId);
+            }
+        }
+        return schedule;
+    }
+}
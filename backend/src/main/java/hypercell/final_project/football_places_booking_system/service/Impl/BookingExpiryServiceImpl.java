@@ -0,0 +1,130 @@
+package hypercell.final_project.football_places_booking_system.service.Impl;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import hypercell.final_project.football_places_booking_system.model.db.BookingMatch;
+import hypercell.final_project.football_places_booking_system.model.db.Place;
+import hypercell.final_project.football_places_booking_system.model.db.Team;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingExpiryStatsDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingIntervalDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingSlotUpdateMessage;
+import hypercell.final_project.football_places_booking_system.model.enums.MatchStatus;
+import hypercell.final_project.football_places_booking_system.repository.BookingMatchRepository;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.BookingAvailabilityService;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.BookingExpiryService;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.OpenMatchFeedService;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.PlayerScheduleService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Periodic sweep that cancels bookings still waiting for players or payment once their start
+ * time has passed. Expired rows are read by (status, start_time) a chunk at a time and moved
+ * with one bulk update per chunk, each in its own transaction, so a large backlog never holds
+ * a long transaction or loads entities. The freed slots are dropped from the in-memory indexes,
+ * including the schedules of the matches' players, and announced once per place and day on
+ * /topic/bookings.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingExpiryServiceImpl implements BookingExpiryService {
+
+    static final int CHUNK_SIZE = 500;
+    private static final List<MatchStatus> EXPIRABLE = List.of(MatchStatus.PENDING_PLAYERS, MatchStatus.PENDING_PAYMENT);
+
+    private final BookingMatchRepository bookingMatchRepository;
+    private final BookingAvailabilityService bookingAvailabilityService;
+    private final OpenMatchFeedService openMatchFeedService;
+    private final PlayerScheduleService playerScheduleService;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private volatile BookingExpiryStatsDTO stats = new BookingExpiryStatsDTO(0, 0, null, 0, 0);
+
+    @Scheduled(initialDelayString = "${app.booking.expiry-sweep.initial-delay:60000}",
+            fixedDelayString = "${app.booking.expiry-sweep.interval:60000}")
+    public void sweep() {
+        try {
+            expireStaleBookings();
+        } catch (RuntimeException e) {
+            log.error("Booking expiry sweep failed", e);
+        }
+    }
+
+    /**
+     * Cancel every pending booking that started before now. Returns the number of bookings
+     * cancelled by this run.
+     */
+    @Override
+    public synchronized int expireStaleBookings() {
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        Set<BookingSlotUpdateMessage> changedDays = new HashSet<>();
+        int expired = 0;
+
+        List<BookingIntervalDTO> chunk;
+        do {
+            chunk = bookingMatchRepository.findIntervalsByStatusInStartingBefore(EXPIRABLE, now, Limit.of(CHUNK_SIZE));
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            List<UUID> ids = chunk.stream().map(BookingIntervalDTO::id).toList();
+            if (bookingMatchRepository.updateStatusIfCurrentIn(ids, EXPIRABLE, MatchStatus.CANCELLED) == 0) {
+                // Every row of the chunk changed status since it was read, so it no longer matches
+                continue;
+            }
+
+            // Rows confirmed or paid meanwhile kept their status and keep their slot
+            Set<UUID> cancelled = bookingMatchRepository.findIdsByIdInAndStatus(ids, MatchStatus.CANCELLED);
+            for (BookingIntervalDTO slot : chunk) {
+                if (!cancelled.contains(slot.id())) {
+                    continue;
+                }
+                bookingAvailabilityService.release(toMatch(slot));
+                openMatchFeedService.matchDelisted(slot.id());
+                playerScheduleService.matchChanged(slot.id());
+                changedDays.add(new BookingSlotUpdateMessage(slot.placeId(), slot.startTime().toLocalDate().toString()));
+                expired++;
+            }
+        } while (chunk.size() == CHUNK_SIZE);
+
+        changedDays.forEach(message -> messagingTemplate.convertAndSend("/topic/bookings", message));
+
+        long durationMillis = (System.nanoTime() - started) / 1_000_000;
+        BookingExpiryStatsDTO previous = stats;
+        stats = new BookingExpiryStatsDTO(previous.runs() + 1, previous.totalExpired() + expired,
+                now, expired, durationMillis);
+
+        if (expired > 0) {
+            log.info("Expired {} pending bookings in {} ms", expired, durationMillis);
+        }
+        return expired;
+    }
+
+    @Override
+    public BookingExpiryStatsDTO getStats() {
+        return stats;
+    }
+
+    // Just enough of the booking for the availability index to find and drop its slot
+    private BookingMatch toMatch(BookingIntervalDTO slot) {
+        return BookingMatch.builder()
+                .id(slot.id())
+                .place(Place.builder().id(slot.placeId()).build())
+                .team(slot.teamId() == null ? null : Team.builder().id(slot.teamId()).build())
+                .startTime(slot.startTime())
+                .endTime(slot.endTime())
+                .status(MatchStatus.CANCELLED)
+                .build();
+    }
+}
@@ -1,27 +1,42 @@
 package hypercell.final_project.football_places_booking_system.service.Impl;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 import hypercell.final_project.football_places_booking_system.model.db.User;
 import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingDetailRespDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingPageResponseDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingResponseDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingSeriesDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingSeriesResponseDTO;
 import hypercell.final_project.football_places_booking_system.model.enums.*;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import hypercell.final_project.football_places_booking_system.exception.AppException;
+import hypercell.final_project.football_places_booking_system.exception.ConflictException;
 import hypercell.final_project.football_places_booking_system.exception.ForbiddenActionException;
 import hypercell.final_project.football_places_booking_system.exception.NotFoundException;
+import hypercell.final_project.football_places_booking_system.exception.SlotUnavailableException;
 import hypercell.final_project.football_places_booking_system.exception.ValidationException;
 import hypercell.final_project.football_places_booking_system.model.db.BookingMatch;
 import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingDTO;
 import hypercell.final_project.football_places_booking_system.repository.BookingMatchRepository;
 import hypercell.final_project.football_places_booking_system.repository.PlaceRepository;
-import hypercell.final_project.football_places_booking_system.repository.TeamMemberRepository;
 import hypercell.final_project.football_places_booking_system.repository.TeamRepository;
 import hypercell.final_project.football_places_booking_system.repository.UserRepository;
 import hypercell.final_project.football_places_booking_system.service.Interfaces.TeamMemberService;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.BookingAvailabilityService;
 import hypercell.final_project.football_places_booking_system.service.Interfaces.BookingMatchService;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.OpenMatchFeedService;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.PlayerScheduleService;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.SlotHoldService;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.WaitlistService;
+import hypercell.final_project.football_places_booking_system.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -35,7 +50,19 @@ public class BookingMatchServiceImpl implements BookingMatchService {
     private final PlaceRepository placeRepository;
     private final TeamRepository teamRepository;
     private final TeamMemberService teamMemberService;
-    private final TeamMemberRepository teamMemberRepository;
+    private final BookingAvailabilityService bookingAvailabilityService;
+    private final SlotHoldService slotHoldService;
+    private final WaitlistService waitlistService;
+    private final OpenMatchFeedService openMatchFeedService;
+    private final PlayerScheduleService playerScheduleService;
+
+    private static final int MAX_SERIES_OCCURRENCES = 52;
+    private static final int MAX_SUGGESTIONS = 5;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private static final LocalDateTime BEGINNING_OF_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime END_OF_TIME = LocalDateTime.of(9999, 12, 31, 23, 59);
 
     /**
      * Create a new match booking. Only ORGANIZER can book a match.
@@ -48,10 +75,11 @@ public class BookingMatchServiceImpl implements BookingMatchService {
         if (dto.placeId() == null) {
             throw new ValidationException(ErrorCode.INVALID_PLACE_ID);
         }
-        if (dto.startTime() == null) {
+        // The availability index holds no bookings before today, so it cannot check past slots
+        if (dto.startTime() == null || dto.startTime().isBefore(LocalDateTime.now())) {
             throw new ValidationException(ErrorCode.INVALID_BOOKING_START_TIME);
         }
-        if (dto.endTime() == null || dto.startTime().isAfter(dto.endTime())) {
+        if (dto.endTime() == null || !dto.startTime().isBefore(dto.endTime())) {
             throw new ValidationException(ErrorCode.INVALID_BOOKING_END_TIME);
         }
 
@@ -68,17 +96,6 @@ public class BookingMatchServiceImpl implements BookingMatchService {
         var team = teamRepository.findById(dto.teamId())
                 .orElseThrow(() -> new NotFoundException(ErrorCode.TEAM_NOT_FOUND));
 
-        boolean isAvailable = bookingMatchRepository.findByPlaceId(place.getId()).stream()
-                .filter(existing -> existing.getStatus() != MatchStatus.CANCELLED)
-                .noneMatch(existing ->
-                        existing.getStartTime().isBefore(dto.endTime()) &&
-                                existing.getEndTime().isAfter(dto.startTime())
-                );
-
-        if (!isAvailable) {
-            throw new ValidationException(ErrorCode.TIME_SLOT_UNAVAILABLE);
-        }
-
         BookingMatch match = new BookingMatch();
         match.setPlace(place);
         match.setUser(user);
@@ -87,7 +104,108 @@ public class BookingMatchServiceImpl implements BookingMatchService {
         match.setEndTime(dto.endTime());
         match.setStatus(MatchStatus.PENDING_PLAYERS);
 
-        return bookingMatchRepository.save(match);
+        BookingMatch saved;
+        try {
+            saved = bookingAvailabilityService.reserve(match);
+        } catch (ValidationException e) {
+            if (e.getData() == null || e.getData().code() != ErrorCode.TIME_SLOT_UNAVAILABLE.getCode()) {
+                throw e;
+            }
+            // Offer the nearest free windows instead of leaving the user to guess
+            throw new SlotUnavailableException(bookingAvailabilityService.suggestAlternatives(
+                    match.getPlace().getId(), match.getStartTime(), match.getEndTime(), MAX_SUGGESTIONS));
+        }
+        slotHoldService.forgetHoldsOf(saved);
+        openMatchFeedService.matchListed(saved);
+        return saved;
+    }
+
+    /**
+     * Book the same slot every N weeks for a team. All occurrences are checked against the
+     * place's schedule in one pass and the free ones are inserted in one batch; occupied ones
+     * are reported back instead of failing the whole series. Only ORGANIZER can book a series.
+     */
+    public BookingSeriesResponseDTO createBookingSeries(BookingSeriesDTO dto, UUID userId) throws AppException {
+
+        if (dto.teamId() == null) {
+            throw new ValidationException(ErrorCode.INVALID_TEAM_ID);
+        }
+        if (dto.placeId() == null) {
+            throw new ValidationException(ErrorCode.INVALID_PLACE_ID);
+        }
+        if (dto.startTime() == null || dto.startTime().isBefore(LocalDateTime.now())) {
+            throw new ValidationException(ErrorCode.INVALID_BOOKING_START_TIME);
+        }
+        if (dto.endTime() == null || !dto.startTime().isBefore(dto.endTime())) {
+            throw new ValidationException(ErrorCode.INVALID_BOOKING_END_TIME);
+        }
+
+        int intervalWeeks = dto.intervalWeeks() != null ? dto.intervalWeeks() : 1;
+        if (intervalWeeks < 1 || (dto.occurrences() == null && dto.until() == null)
+                || (dto.occurrences() != null && (dto.occurrences() < 1 || dto.occurrences() > MAX_SERIES_OCCURRENCES))
+                || (dto.until() != null && dto.until().isBefore(dto.startTime().toLocalDate()))) {
+            throw new ValidationException(ErrorCode.INVALID_RECURRENCE_RULE);
+        }
+
+        var user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND));
+
+        if (!teamMemberService.isOrganizer(user.getId(), dto.teamId())) {
+            throw new ForbiddenActionException(ErrorCode.FORBIDDEN);
+        }
+
+        var place = placeRepository.findById(dto.placeId())
+                .orElseThrow(() -> new NotFoundException(ErrorCode.PLACE_NOT_FOUND));
+
+        var team = teamRepository.findById(dto.teamId())
+                .orElseThrow(() -> new NotFoundException(ErrorCode.TEAM_NOT_FOUND));
+
+        // Without a count, generate one past the cap so an `until` that is too far away is detected
+        int limit = dto.occurrences() != null ? dto.occurrences() : MAX_SERIES_OCCURRENCES + 1;
+        List<BookingMatch> candidates = new ArrayList<>();
+        for (int i = 0; i < limit; i++) {
+            LocalDateTime start = dto.startTime().plusWeeks((long) i * intervalWeeks);
+            if (dto.until() != null && start.toLocalDate().isAfter(dto.until())) {
+                break;
+            }
+
+            BookingMatch match = new BookingMatch();
+            match.setPlace(place);
+            match.setUser(user);
+            match.setTeam(team);
+            match.setStartTime(start);
+            match.setEndTime(dto.endTime().plusWeeks((long) i * intervalWeeks));
+            match.setStatus(MatchStatus.PENDING_PLAYERS);
+            candidates.add(match);
+        }
+
+        if (candidates.size() > MAX_SERIES_OCCURRENCES) {
+            throw new ValidationException(ErrorCode.INVALID_RECURRENCE_RULE);
+        }
+
+        List<BookingMatch> saved = bookingAvailabilityService.reserveAll(candidates);
+
+        List<BookingSeriesResponseDTO.Occurrence> occurrences = new ArrayList<>(candidates.size());
+        int booked = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            BookingMatch candidate = candidates.get(i);
+            BookingMatch match = saved.get(i);
+            if (match != null) {
+                booked++;
+                slotHoldService.forgetHoldsOf(match);
+                openMatchFeedService.matchListed(match);
+            }
+            occurrences.add(new BookingSeriesResponseDTO.Occurrence(
+                    candidate.getStartTime(),
+                    candidate.getEndTime(),
+                    match != null ? match.getId() : null,
+                    match != null ? null : AppException.Data.fromErrorCode(ErrorCode.TIME_SLOT_UNAVAILABLE)
+            ));
+        }
+
+        log.info("Booking series for team {} at place {}: {} of {} occurrences booked",
+                team.getId(), place.getId(), booked, candidates.size());
+        return new BookingSeriesResponseDTO(candidates.size(), booked, occurrences);
     }
 
 
@@ -106,9 +224,23 @@ public class BookingMatchServiceImpl implements BookingMatchService {
             throw new ForbiddenActionException(ErrorCode.FORBIDDEN);
         }
 
-
-        match.setStatus(MatchStatus.CONFIRMED);
-        bookingMatchRepository.save(match);
+        if (match.getStatus() == MatchStatus.CANCELLED) {
+            // Confirming a cancelled match takes its slot back, so it goes through the reservation
+            // path; the versioned save fails if the match changed since it was read
+            if (!match.getStatus().canTransitionTo(MatchStatus.CONFIRMED)) {
+                throw new ValidationException(ErrorCode.INVALID_STATUS_TRANSITION);
+            }
+            match.setStatus(MatchStatus.CONFIRMED);
+            try {
+                bookingAvailabilityService.reserve(match);
+            } catch (OptimisticLockingFailureException e) {
+                throw new ConflictException(ErrorCode.BOOKING_STATUS_CONFLICT);
+            }
+            playerScheduleService.matchChanged(match.getId());
+        } else {
+            transition(match, MatchStatus.CONFIRMED);
+        }
+        openMatchFeedService.matchDelisted(match.getId());
     }
 
 
@@ -138,11 +270,31 @@ public class BookingMatchServiceImpl implements BookingMatchService {
             throw new ValidationException(ErrorCode.MATCH_CANNOT_BE_CANCELLED_NOW);
         }
 
-        match.setStatus(MatchStatus.CANCELLED);
-        bookingMatchRepository.save(match);
+        transition(match, MatchStatus.CANCELLED);
+        bookingAvailabilityService.release(match);
+        openMatchFeedService.matchDelisted(match.getId());
+        playerScheduleService.matchChanged(match.getId());
+
+        // Hand the freed slot to the teams waiting for it
+        waitlistService.promote(match.getPlace().getId(), match.getStartTime(), match.getEndTime());
     }
 
 
+    /**
+     * Move the match to the next status with a conditional update on the status it was read
+     * with, so of two concurrent changes only the first applies and the second gets
+     * BOOKING_STATUS_CONFLICT instead of silently overwriting it.
+     */
+    private void transition(BookingMatch match, MatchStatus next) throws AppException {
+        if (!match.getStatus().canTransitionTo(next)) {
+            throw new ValidationException(ErrorCode.INVALID_STATUS_TRANSITION);
+        }
+        if (bookingMatchRepository.updateStatusIfCurrent(match.getId(), match.getStatus(), next) == 0) {
+            throw new ConflictException(ErrorCode.BOOKING_STATUS_CONFLICT);
+        }
+        match.setStatus(next);
+    }
+
     public BookingMatch getById(UUID id) throws AppException {
         if (id == null) {
             throw new ValidationException(ErrorCode.INVALID_BOOKING_MATCH_ID);
@@ -191,6 +343,28 @@ public class BookingMatchServiceImpl implements BookingMatchService {
         return bookingMatchRepository.findByUserId(userId);
     }
 
+    /**
+     * Bookings of a team overlapping [from, to). Either bound may be null for an open window;
+     * with both null only the bookings not cancelled and not over yet are returned, so the
+     * full history has to be asked for with an explicit from.
+     */
+    public List<BookingMatch> getByTeam(UUID teamId, LocalDateTime from, LocalDateTime to) throws AppException {
+        if (teamId == null) {
+            throw new ValidationException(ErrorCode.INVALID_TEAM_ID);
+        }
+        validateWindow(from, to);
+
+        teamRepository.findById(teamId)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.TEAM_NOT_FOUND));
+
+        if (from == null && to == null) {
+            return bookingMatchRepository.findUpcomingByTeamId(teamId, MatchStatus.CANCELLED, LocalDateTime.now());
+        }
+        return bookingMatchRepository.findByTeamIdInWindow(teamId,
+                from != null ? from : BEGINNING_OF_TIME,
+                to != null ? to : END_OF_TIME);
+    }
+
     public List<BookingMatch> getByTeam(UUID teamId) throws AppException {
         if (teamId == null) {
             throw new ValidationException(ErrorCode.INVALID_TEAM_ID);
@@ -202,6 +376,34 @@ public class BookingMatchServiceImpl implements BookingMatchService {
         return bookingMatchRepository.findByTeamId(teamId);
     }
 
+    /**
+     * Bookings of a place overlapping [from, to). Either bound may be null for an open window;
+     * with both null only the bookings not cancelled and not over yet are returned, so the
+     * full history has to be asked for with an explicit from.
+     */
+    public List<BookingMatch> getByPlace(UUID placeId, LocalDateTime from, LocalDateTime to) throws AppException {
+        if (placeId == null) {
+            throw new ValidationException(ErrorCode.INVALID_PLACE_ID);
+        }
+        validateWindow(from, to);
+
+        placeRepository.findById(placeId)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.PLACE_NOT_FOUND));
+
+        if (from == null && to == null) {
+            return bookingMatchRepository.findUpcomingByPlaceId(placeId, MatchStatus.CANCELLED, LocalDateTime.now());
+        }
+        return bookingMatchRepository.findByPlaceIdInWindow(placeId,
+                from != null ? from : BEGINNING_OF_TIME,
+                to != null ? to : END_OF_TIME);
+    }
+
+    private void validateWindow(LocalDateTime from, LocalDateTime to) throws AppException {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new ValidationException(ErrorCode.INVALID_BOOKING_END_TIME);
+        }
+    }
+
     public List<BookingMatch> getByPlace(UUID placeId) throws AppException {
         if (placeId == null) {
             throw new ValidationException(ErrorCode.INVALID_PLACE_ID);
@@ -213,29 +415,57 @@ public class BookingMatchServiceImpl implements BookingMatchService {
         return bookingMatchRepository.findByPlaceId(placeId);
     }
 
-    public List<BookingMatch> getAll() {
-        return bookingMatchRepository.findAllWithDetails();
+    /**
+     * Keyset page of bookings ordered by start time then id, optionally filtered by status,
+     * place, team and a [from, to) start-time range. The cursor is the opaque nextCursor of
+     * the previous page; pages never skip or repeat rows when bookings are added meanwhile.
+     */
+    public BookingPageResponseDTO getPage(MatchStatus status, UUID placeId, UUID teamId,
+                                          LocalDateTime from, LocalDateTime to,
+                                          String cursor, int size) throws AppException {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException(ErrorCode.INVALID_PAGE_SIZE);
+        }
+        validateWindow(from, to);
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        LocalDateTime afterStart = after != null ? after.startTime() : BEGINNING_OF_TIME.minusDays(1);
+        UUID afterId = after != null ? after.id() : FIRST_ID;
+
+        // One extra row tells whether there is a next page
+        List<BookingResponseDTO> rows = bookingMatchRepository.findPage(status, placeId, teamId,
+                from != null ? from : BEGINNING_OF_TIME,
+                to != null ? to : END_OF_TIME,
+                afterStart, afterId, Limit.of(size + 1));
+
+        if (rows.size() <= size) {
+            return new BookingPageResponseDTO(rows, null);
+        }
+
+        List<BookingResponseDTO> items = rows.subList(0, size);
+        BookingResponseDTO last = items.get(size - 1);
+        return new BookingPageResponseDTO(items, new KeysetCursor(last.startTime(), last.id()).encode());
     }
 
     public BookingMatch save(BookingMatch match) {
         return bookingMatchRepository.save(match);
     }
 
-    public List<BookingMatch> getMyMatchesAsOrganizer(UUID userId) throws AppException {
+    /**
+     * Bookings of the teams the user organizes, oldest first. Unless includePast is set only
+     * matches that have not ended yet are returned.
+     */
+    public List<BookingMatch> getMyMatchesAsOrganizer(UUID userId, boolean includePast, int page, int size)
+            throws AppException {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException(ErrorCode.INVALID_PAGE_SIZE);
+        }
+
         userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND));
 
-        List<UUID> organizerTeams = teamMemberRepository.findByUserId(userId).stream()
-                .filter(tm -> tm.getRole() == TeamRole.ORGANIZER && tm.getStatus() == TeamStatus.APPROVED)
-                .map(tm -> tm.getTeam().getId())
-                .toList();
-
-        if (organizerTeams.isEmpty()) {
-            return List.of();
-        }
-
-        return bookingMatchRepository.findAllWithDetails().stream()
-                .filter(match -> organizerTeams.contains(match.getTeam().getId()))
-                .toList();
+        return bookingMatchRepository.findByTeamMember(userId, TeamRole.ORGANIZER, TeamStatus.APPROVED,
+                includePast ? BEGINNING_OF_TIME : LocalDateTime.now(),
+                PageRequest.of(page, size));
     }
 }
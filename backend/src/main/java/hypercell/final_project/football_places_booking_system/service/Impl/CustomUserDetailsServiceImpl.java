@@ -1,5 +1,11 @@
 package hypercell.final_project.football_places_booking_system.service.Impl;
 
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
 import hypercell.final_project.football_places_booking_system.service.Interfaces.CustomUserDetailsService;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -7,15 +13,44 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import hypercell.final_project.football_places_booking_system.model.db.User;
+import hypercell.final_project.football_places_booking_system.model.enums.UserRole;
+import hypercell.final_project.football_places_booking_system.model.enums.UserStatus;
 import hypercell.final_project.football_places_booking_system.repository.UserRepository;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 
+/**
+ * Loads the principal of authenticated requests. loadUserByUsername always reads the database
+ * and backs the login; loadPrincipal is used by JwtFilter and avoids the lookup where it can:
+ *
+ * - tokens carrying the user's id, name, role and status are trusted as they are, unless they
+ *   were issued before the account was last changed or before this instance started, since
+ *   the change log below only covers changes made while it was running;
+ * - otherwise the user is read from a short-lived cache, and from the database on a miss.
+ *
+ * UserServiceImpl calls evict whenever it updates or deletes an account.
+ */
 @RequiredArgsConstructor
 @Service
 public class CustomUserDetailsServiceImpl implements UserDetailsService, CustomUserDetailsService {
 
+    private static final Duration PRINCIPAL_TTL = Duration.ofMinutes(1);
+    private static final int MAX_CACHED_PRINCIPALS = 10_000;
+    private static final int MAX_TRACKED_CHANGES = 10_000;
+
     private final UserRepository userRepository;
 
+    private record CachedPrincipal(User user, long loadedAtMillis) {}
+
+    // email -> user, loaded at most PRINCIPAL_TTL ago
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+
+    // email -> when the account was last changed; claims of tokens issued until then are stale
+    private final Map<String, Long> changedAt = new ConcurrentHashMap<>();
+
+    // No token issued until then is trusted: this instance's start, or the last time changedAt was cleared
+    private volatile long untrustedUntil = System.currentTimeMillis();
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email);
@@ -26,4 +61,72 @@ public class CustomUserDetailsServiceImpl implements UserDetailsService, CustomU
         
         return user;
     }
+
+    @Override
+    public UserDetails loadPrincipal(Claims claims) throws UsernameNotFoundException {
+        String email = claims.getSubject();
+
+        User fromToken = fromClaims(email, claims);
+        if (fromToken != null) {
+            return fromToken;
+        }
+
+        CachedPrincipal cached = principals.get(email);
+        long now = System.currentTimeMillis();
+        if (cached != null && now - cached.loadedAtMillis() < PRINCIPAL_TTL.toMillis()) {
+            return cached.user();
+        }
+
+        User user = (User) loadUserByUsername(email);
+        if (principals.size() >= MAX_CACHED_PRINCIPALS) {
+            principals.values().removeIf(entry -> now - entry.loadedAtMillis() >= PRINCIPAL_TTL.toMillis());
+            if (principals.size() >= MAX_CACHED_PRINCIPALS) {
+                principals.clear();
+            }
+        }
+        principals.put(email, new CachedPrincipal(user, now));
+        return user;
+    }
+
+    @Override
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (changedAt.size() >= MAX_TRACKED_CHANGES) {
+            // Forgetting the changes is only safe if every token issued before them is distrusted
+            untrustedUntil = now;
+            changedAt.clear();
+        }
+        changedAt.put(email, now);
+        principals.remove(email);
+    }
+
+    // The user described by the token, or null if its claims are missing or may be stale
+    private User fromClaims(String email, Claims claims) {
+        Date issuedAt = claims.getIssuedAt();
+        String userId = claims.get("userId", String.class);
+        String role = claims.get("role", String.class);
+        String status = claims.get("status", String.class);
+        if (email == null || issuedAt == null || userId == null || role == null || status == null) {
+            return null;
+        }
+
+        // iat has second precision, so a token issued in the same second as a change counts as stale
+        long issued = issuedAt.getTime();
+        Long changed = changedAt.get(email);
+        if (issued <= untrustedUntil || (changed != null && issued <= changed)) {
+            return null;
+        }
+
+        return User.builder()
+                .id(UUID.fromString(userId))
+                .email(email)
+                .username(claims.get("username", String.class))
+                .role(UserRole.valueOf(role))
+                .status(UserStatus.valueOf(status))
+                .build();
+    }
 }
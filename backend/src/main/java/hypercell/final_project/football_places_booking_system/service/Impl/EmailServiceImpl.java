@@ -1,5 +1,7 @@
 package hypercell.final_project.football_places_booking_system.service.Impl;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -20,6 +22,7 @@ import hypercell.final_project.football_places_booking_system.repository.TeamMem
 import hypercell.final_project.football_places_booking_system.repository.TeamRepository;
 import hypercell.final_project.football_places_booking_system.repository.UserRepository;
 import hypercell.final_project.football_places_booking_system.service.Interfaces.EmailService;
+import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 
@@ -248,34 +251,7 @@ public class EmailServiceImpl implements EmailService {
     @Override
     public CompletableFuture<Void> sendInvitationEmail(String email, MatchParticipant matchParticipant) {
         try {
-            // Get match details
-            String placeName = matchParticipant.getBookingMatch().getPlace().getName();
-            String placeImageUrl = matchParticipant.getBookingMatch().getPlace().getImageUrl();
-            
-            // Format date and time for better readability
-            String matchDate = matchParticipant.getBookingMatch().getStartTime().toLocalDate().toString();
-            String weekDay = matchParticipant.getBookingMatch().getStartTime().getDayOfWeek().toString();
-            
-            // Format start time
-            int startHour = matchParticipant.getBookingMatch().getStartTime().getHour();
-            String startAmPm = startHour >= 12 ? "PM" : "AM";
-            int startDisplayHour = startHour == 0 ? 12 : (startHour > 12 ? startHour - 12 : startHour);
-            String matchStartTime = String.format("%d %s", startDisplayHour, startAmPm);
-            
-            // Format end time
-            int endHour = matchParticipant.getBookingMatch().getEndTime().getHour();
-            String endAmPm = endHour >= 12 ? "PM" : "AM";
-            int endDisplayHour = endHour == 0 ? 12 : (endHour > 12 ? endHour - 12 : endHour);
-            String matchEndTime = String.format("%d %s", endDisplayHour, endAmPm);
-
-            // Get participant's name
-            String participantName = matchParticipant.getUser().getUserName();
-
-            // Get match organizer (the user who created the booking match)
-            String organizerName = matchParticipant.getBookingMatch().getUser().getUserName();
-            
-            // Send the email asynchronously
-            sendHtmlMatchInvitationEmail(organizerName, placeName, placeImageUrl, matchDate, weekDay, matchStartTime, matchEndTime, email, participantName, matchParticipant.getId());
+            mailSender.send(createMatchInvitationEmail(email, matchParticipant));
             return CompletableFuture.completedFuture(null);
             
         } catch (Exception e) {
@@ -285,40 +261,80 @@ public class EmailServiceImpl implements EmailService {
         }
     }
 
-    private void sendHtmlMatchInvitationEmail(String organizerName, String placeName, String placeImageUrl, String matchDate, String weekDay, String matchStartTime, String matchEndTime, String email, String participantName, UUID participantId) {
+    // All invitations go out through one mail server connection instead of one task and connection each
+    @Override
+    public CompletableFuture<Void> sendInvitationEmails(List<MatchParticipant> matchParticipants) {
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
+            List<MimeMessage> messages = new ArrayList<>(matchParticipants.size());
+            for (MatchParticipant matchParticipant : matchParticipants) {
+                messages.add(createMatchInvitationEmail(matchParticipant.getUser().getEmail(), matchParticipant));
+            }
+            mailSender.send(messages.toArray(new MimeMessage[0]));
+            return CompletableFuture.completedFuture(null);
 
-            helper.setFrom("football.booking.system@gmail.com");
-            helper.setTo(email);
-            helper.setSubject("Match Invitation - " + placeName);
+        } catch (Exception e) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            future.completeExceptionally(new RuntimeException("Failed to send match invitation emails: " + e.getMessage(), e));
+            return future;
+        }
+    }
 
-            // placeImageUrl = "https://drive.google.com/file/d/1SAgSaiE3llePtK7pyq7ER9zBxb5nJ7Yd/view?usp=sharing"; // Placeholder for the image URL
-//            placeImageUrl = "https://tse2.mm.bing.net/th/id/OIP.8bPgs9SeX1oHf7Sxe7hQkwHaEK?rs=1&pid=ImgDetMain&o=7&rm=3"; // Placeholder for the image URL
+    private MimeMessage createMatchInvitationEmail(String email, MatchParticipant matchParticipant) throws MessagingException {
+        // Get match details
+        String placeName = matchParticipant.getBookingMatch().getPlace().getName();
+        String placeImageUrl = matchParticipant.getBookingMatch().getPlace().getImageUrl();
 
-            // Create Thymeleaf context with variables
-            Context context = new Context();
-            context.setVariable("organizerName", organizerName);
-            context.setVariable("placeName", placeName);
-            context.setVariable("placeImageUrl", placeImageUrl);
-            context.setVariable("matchDate", matchDate);
-            context.setVariable("weekDay", weekDay);
-            context.setVariable("matchStartTime", matchStartTime);
-            context.setVariable("matchEndTime", matchEndTime);
-            context.setVariable("participantName", participantName);
-            context.setVariable("participantId", participantId);
-            context.setVariable("invitationApi", "http://localhost:8080/api/match-participants/respond-mail/" + participantId);
+        // Format date and time for better readability
+        String matchDate = matchParticipant.getBookingMatch().getStartTime().toLocalDate().toString();
+        String weekDay = matchParticipant.getBookingMatch().getStartTime().getDayOfWeek().toString();
 
-            // Process the template
-            String htmlContent = templateEngine.process("match-invitation-email-content", context);
-            helper.setText(htmlContent, true);
+        // Format start time
+        int startHour = matchParticipant.getBookingMatch().getStartTime().getHour();
+        String startAmPm = startHour >= 12 ? "PM" : "AM";
+        int startDisplayHour = startHour == 0 ? 12 : (startHour > 12 ? startHour - 12 : startHour);
+        String matchStartTime = String.format("%d %s", startDisplayHour, startAmPm);
 
-            mailSender.send(message);
+        // Format end time
+        int endHour = matchParticipant.getBookingMatch().getEndTime().getHour();
+        String endAmPm = endHour >= 12 ? "PM" : "AM";
+        int endDisplayHour = endHour == 0 ? 12 : (endHour > 12 ? endHour - 12 : endHour);
+        String matchEndTime = String.format("%d %s", endDisplayHour, endAmPm);
 
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to send match invitation email: " + e.getMessage(), e);
-        }
+        // Get participant's name
+        String participantName = matchParticipant.getUser().getUserName();
+
+        // Get match organizer (the user who created the booking match)
+        String organizerName = matchParticipant.getBookingMatch().getUser().getUserName();
+
+        return createHtmlMatchInvitationEmail(organizerName, placeName, placeImageUrl, matchDate, weekDay, matchStartTime, matchEndTime, email, participantName, matchParticipant.getId());
+    }
+
+    private MimeMessage createHtmlMatchInvitationEmail(String organizerName, String placeName, String placeImageUrl, String matchDate, String weekDay, String matchStartTime, String matchEndTime, String email, String participantName, UUID participantId) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+
+        helper.setFrom("football.booking.system@gmail.com");
+        helper.setTo(email);
+        helper.setSubject("Match Invitation - " + placeName);
+
+        // Create Thymeleaf context with variables
+        Context context = new Context();
+        context.setVariable("organizerName", organizerName);
+        context.setVariable("placeName", placeName);
+        context.setVariable("placeImageUrl", placeImageUrl);
+        context.setVariable("matchDate", matchDate);
+        context.setVariable("weekDay", weekDay);
+        context.setVariable("matchStartTime", matchStartTime);
+        context.setVariable("matchEndTime", matchEndTime);
+        context.setVariable("participantName", participantName);
+        context.setVariable("participantId", participantId);
+        context.setVariable("invitationApi", "http://localhost:8080/api/match-participants/respond-mail/" + participantId);
+
+        // Process the template
+        String htmlContent = templateEngine.process("match-invitation-email-content", context);
+        helper.setText(htmlContent, true);
+
+        return message;
     }
 
     @Override
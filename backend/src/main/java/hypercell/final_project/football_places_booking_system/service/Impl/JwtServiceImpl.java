@@ -1,6 +1,13 @@
 package hypercell.final_project.football_places_booking_system.service.Impl;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import hypercell.final_project.football_places_booking_system.service.Interfaces.JwtService;
 import org.springframework.beans.factory.annotation.Value;
@@ -18,6 +25,13 @@ public class JwtServiceImpl implements JwtService {
     private static String SECRET_KEY; 
     private static long EXPIRATION;
 
+    private static final int MAX_CACHED_TOKENS = 10_000;
+
+    private record VerifiedClaims(Claims claims, long expiresAtMillis) {}
+
+    // SHA-256 of a token -> its claims, kept from the first signature check until the token expires
+    private final Map<String, VerifiedClaims> verifiedClaims = new ConcurrentHashMap<>();
+
     public JwtServiceImpl(
             @Value("${app.security.jwt.secret-key}") String secretKey,
             @Value("${app.security.jwt.expiration}") long expiration
@@ -31,15 +45,19 @@ public class JwtServiceImpl implements JwtService {
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+        final Claims claims = extractAllClaims(token);
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
     }
 
     public String generateToken(UserDetails userDetails) {
         return Jwts.builder()
+            .setId(UUID.randomUUID().toString())
             .setSubject(userDetails.getUsername())
             .claim("authorities", userDetails.getAuthorities())
             .claim("userId", ((User) userDetails).getId())
+            .claim("username", ((User) userDetails).getUserName())
+            .claim("role", ((User) userDetails).getRole())
+            .claim("status", ((User) userDetails).getStatus())
             .setIssuedAt(new Date(System.currentTimeMillis()))
             .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION))
             .signWith(SignatureAlgorithm.HS256, SECRET_KEY)
@@ -50,10 +68,49 @@ public class JwtServiceImpl implements JwtService {
         return extractAllClaims(token).getExpiration().before(new Date());
     }
 
+    /**
+     * Claims of a token whose signature was checked. The signature is verified the first time a
+     * token is seen; later calls with the same token, including the ones made by extractUsername,
+     * isTokenValid and isTokenExpired on the same request, reuse the verified claims until the
+     * token expires. An expired token is parsed again, so it still fails with ExpiredJwtException.
+     */
     public Claims extractAllClaims(String token) {
+        String digest = digest(token);
+        VerifiedClaims cached = verifiedClaims.get(digest);
+        if (cached != null) {
+            if (cached.expiresAtMillis() > System.currentTimeMillis()) {
+                return cached.claims();
+            }
+            verifiedClaims.remove(digest);
+        }
+
+        Claims claims = parseClaims(token);
+        if (claims.getExpiration() != null) {
+            if (verifiedClaims.size() >= MAX_CACHED_TOKENS) {
+                long now = System.currentTimeMillis();
+                verifiedClaims.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+                if (verifiedClaims.size() >= MAX_CACHED_TOKENS) {
+                    verifiedClaims.clear();
+                }
+            }
+            verifiedClaims.put(digest, new VerifiedClaims(claims, claims.getExpiration().getTime()));
+        }
+        return claims;
+    }
+
+    private Claims parseClaims(String token) {
         return Jwts.parser()
             .setSigningKey(SECRET_KEY)
             .parseClaimsJws(token)
             .getBody();
     }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 }
\ No newline at end of file
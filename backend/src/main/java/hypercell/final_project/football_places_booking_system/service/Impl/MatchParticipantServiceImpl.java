@@ -1,24 +1,40 @@
 package hypercell.final_project.football_places_booking_system.service.Impl;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import hypercell.final_project.football_places_booking_system.exception.*;
 import hypercell.final_project.football_places_booking_system.model.db.Request;
 import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingDetailRespDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.MatchPartDTOs.BulkInvitationRequest;
+import hypercell.final_project.football_places_booking_system.model.dto.MatchPartDTOs.BulkInvitationResponseDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.MatchPartDTOs.MatchPageResponseDTO;
 import hypercell.final_project.football_places_booking_system.model.dto.MatchPartDTOs.UserMatchResponseDTO;
 import hypercell.final_project.football_places_booking_system.model.dto.TeamDTOS.InvitationRequest;
 import hypercell.final_project.football_places_booking_system.model.enums.*;
 import hypercell.final_project.football_places_booking_system.service.Interfaces.*;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import hypercell.final_project.football_places_booking_system.model.db.BookingMatch;
 import hypercell.final_project.football_places_booking_system.model.db.MatchParticipant;
 import hypercell.final_project.football_places_booking_system.model.db.User;
+import hypercell.final_project.football_places_booking_system.repository.BookingMatchRepository;
 import hypercell.final_project.football_places_booking_system.repository.MatchParticipantRepository;
 import hypercell.final_project.football_places_booking_system.repository.RequestRepository;
+import hypercell.final_project.football_places_booking_system.repository.TeamMemberRepository;
 import hypercell.final_project.football_places_booking_system.repository.UserRepository;
+import hypercell.final_project.football_places_booking_system.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -26,12 +42,28 @@ import lombok.RequiredArgsConstructor;
 public class MatchParticipantServiceImpl implements MatchParticipantService {
 
     private final MatchParticipantRepository matchParticipantRepository;
+    private final BookingMatchRepository bookingMatchRepository;
     private final UserRepository userRepository;
     private final TeamMemberService teamMemberService;
     private final BookingMatchServiceImpl bookingMatchService;
     private final EmailService emailService;
     private final RequestService requestService;
     private final RequestRepository requestRepository;
+    private final TeamMemberRepository teamMemberRepository;
+    private final OpenMatchFeedService openMatchFeedService;
+    private final PlayerScheduleService playerScheduleService;
+
+    private static final int MAX_BULK_INVITATIONS = 50;
+    private static final int MAX_PAGE_SIZE = 100;
+    // A seat can only be taken in a match that still takes place
+    private static final List<MatchStatus> SEAT_STATUSES =
+            List.of(MatchStatus.PENDING_PLAYERS, MatchStatus.PENDING_PAYMENT, MatchStatus.CONFIRMED);
+
+    // Keyset bounds before the first and after the last possible row
+    private static final LocalDateTime BEGINNING_OF_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime END_OF_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+    private static final UUID LAST_ID = new UUID(-1L, -1L);
 
     // ==============================
     // Shared Validation Utilities
@@ -52,43 +84,24 @@ public class MatchParticipantServiceImpl implements MatchParticipantService {
                 .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND));
     }
 
-    private void validateCapacity(BookingMatch match) throws AppException {
-        int maxCapacity = switch (match.getPlace().getPlaceType()) {
-            case FIVE -> 10;
-            case SEVEN -> 14;
-            case ELEVEN -> 22;
-        };
-
-        long acceptedCount = matchParticipantRepository.findByBookingMatchId(match.getId())
-                .stream()
-                .filter(p -> p.getStatus() == ParticipantStatus.ACCEPTED)
-                .count();
-
-        if (acceptedCount >= maxCapacity) {
-            throw new ValidationException(ErrorCode.MATCH_CAPACITY_EXCEEDED);
-        }
-    }
-
-    private void updateMatchStatusIfFull(BookingMatch match) throws AppException {
-        int maxCapacity = switch (match.getPlace().getPlaceType()) {
-            case FIVE -> 10;
-            case SEVEN -> 14;
-            case ELEVEN -> 22;
-        };
-
-        long acceptedCount = matchParticipantRepository.findByBookingMatchId(match.getId())
-                .stream()
-                .filter(p -> p.getStatus() == ParticipantStatus.ACCEPTED)
-                .count();
-
-        if (acceptedCount >= maxCapacity && match.getStatus() == MatchStatus.PENDING_PLAYERS) {
-            match.setStatus(MatchStatus.PENDING_PAYMENT);
-            bookingMatchService.getById(match.getId()); // ensure match exists
-            bookingMatchService.save(match); // you might need a save method or repo
+    /**
+     * Take a seat in the match with one conditional update. The same statement moves the match
+     * from PENDING_PLAYERS to PENDING_PAYMENT when the last seat is taken, so concurrent accepts
+     * can never overfill it.
+     */
+    private void claimSeat(BookingMatch match) throws AppException {
+        int updated = bookingMatchRepository.incrementAcceptedCount(match.getId(),
+                match.getPlace().getPlaceType().getCapacity(), SEAT_STATUSES,
+                MatchStatus.PENDING_PLAYERS, MatchStatus.PENDING_PAYMENT);
+
+        if (updated == 0) {
+            boolean open = bookingMatchRepository.findStatusById(match.getId())
+                    .map(SEAT_STATUSES::contains)
+                    .orElse(false);
+            throw new ValidationException(open ? ErrorCode.MATCH_CAPACITY_EXCEEDED : ErrorCode.INVALID_MATCH_STATUS);
         }
     }
 
-
     private void ensureNotParticipant(UUID matchId, UUID userId) throws AppException {
         boolean alreadyParticipant = matchParticipantRepository
                 .findByBookingMatchIdAndUserId(matchId, userId)
@@ -138,15 +151,187 @@ public class MatchParticipantServiceImpl implements MatchParticipantService {
         requestService.createRequestWithMessage(match.getUser().getId(), user.getId(),
                 RequestType.MATCH_INVITATION, message, participant.getId());
 
+        openMatchFeedService.invitationsSent(match.getId(), 1);
         emailService.sendInvitationEmail(dto.email(), participant);
         return participant;
     }
 
+    // ==============================
+    // Invite many Users at once
+    // ==============================
+
+    /**
+     * Invite every address in one pass: all users are resolved with one IN query, existing
+     * participants with another, participants and notification requests are inserted in two
+     * batched saveAll calls, and the invitation emails go to the email pipeline as one batch.
+     * Addresses that cannot be invited are reported in the result instead of failing the call.
+     */
+    @Override
+    @Transactional(rollbackFor = AppException.class)
+    public BulkInvitationResponseDTO inviteParticipants(BulkInvitationRequest dto, UUID bookingMatchId)
+            throws AppException {
+        if (dto.emails() == null || dto.emails().isEmpty()) {
+            throw new NoDataException(ErrorCode.NO_DATA);
+        }
+        if (dto.emails().size() > MAX_BULK_INVITATIONS) {
+            throw new ValidationException(ErrorCode.TOO_MANY_INVITATIONS);
+        }
+
+        BookingMatch match = validateBookingMatch(bookingMatchId);
+
+        Set<String> lookup = dto.emails().stream()
+                .filter(email -> email != null && !email.isBlank())
+                .map(email -> email.trim().toLowerCase())
+                .collect(Collectors.toSet());
+
+        Map<String, User> usersByEmail = lookup.isEmpty() ? Map.of()
+                : userRepository.findByEmailInIgnoreCase(lookup).stream()
+                        .collect(Collectors.toMap(user -> user.getEmail().toLowerCase(), user -> user, (a, b) -> a));
+
+        Set<UUID> alreadyParticipating = usersByEmail.isEmpty() ? Set.of()
+                : matchParticipantRepository.findUserIdsByBookingMatchIdAndUserIdIn(match.getId(),
+                        usersByEmail.values().stream().map(User::getId).toList());
+
+        List<BulkInvitationResponseDTO.Result> results = new ArrayList<>(dto.emails().size());
+        List<MatchParticipant> participants = new ArrayList<>();
+        Set<UUID> invitedNow = new HashSet<>();
+
+        for (String email : dto.emails()) {
+            if (email == null || email.isBlank()) {
+                results.add(new BulkInvitationResponseDTO.Result(email, null, null,
+                        AppException.Data.fromErrorCode(ErrorCode.INVALID_PARTICIPANT_EMAIL)));
+                continue;
+            }
+
+            User user = usersByEmail.get(email.trim().toLowerCase());
+            if (user == null) {
+                results.add(new BulkInvitationResponseDTO.Result(email, null, null,
+                        AppException.Data.fromErrorCode(ErrorCode.USER_NOT_FOUND)));
+                continue;
+            }
+            if (alreadyParticipating.contains(user.getId()) || !invitedNow.add(user.getId())) {
+                results.add(new BulkInvitationResponseDTO.Result(email, null, user.getId(),
+                        AppException.Data.fromErrorCode(ErrorCode.MATCH_PARTICIPANT_ALREADY_EXISTS)));
+                continue;
+            }
+
+            MatchParticipant participant = MatchParticipant.builder()
+                    .bookingMatch(match)
+                    .user(user)
+                    .status(ParticipantStatus.INVITED)
+                    .build();
+            participants.add(participant);
+            results.add(new BulkInvitationResponseDTO.Result(email, null, user.getId(), null));
+        }
+
+        if (participants.isEmpty()) {
+            return new BulkInvitationResponseDTO(0, results);
+        }
+
+        saveInvitations(match, participants);
+
+        // Fill in the generated participant ids, in request order
+        Map<UUID, UUID> participantIds = participants.stream()
+                .collect(Collectors.toMap(participant -> participant.getUser().getId(), MatchParticipant::getId));
+        for (int i = 0; i < results.size(); i++) {
+            BulkInvitationResponseDTO.Result result = results.get(i);
+            if (result.error() == null) {
+                results.set(i, new BulkInvitationResponseDTO.Result(result.email(),
+                        participantIds.get(result.userId()), result.userId(), null));
+            }
+        }
+
+        return new BulkInvitationResponseDTO(participants.size(), results);
+    }
+
+    // ==============================
+    // Invite the Team Roster
+    // ==============================
+
+    /**
+     * Invite every APPROVED member of the match team who is not a participant yet. The roster
+     * is read with one join query and the existing participants with one more, so the cost
+     * does not grow with the squad size; the organizer who booked the match is left out, they
+     * join through joinMatchAsOrganizer.
+     */
+    @Override
+    @Transactional(rollbackFor = AppException.class)
+    public BulkInvitationResponseDTO inviteRoster(UUID bookingMatchId) throws AppException {
+        BookingMatch match = validateBookingMatch(bookingMatchId);
+
+        List<User> roster = teamMemberRepository.findUsersByTeamIdAndStatus(match.getTeam().getId(), TeamStatus.APPROVED);
+        Set<UUID> alreadyParticipating = matchParticipantRepository.findUserIdsByBookingMatchId(match.getId());
+
+        List<BulkInvitationResponseDTO.Result> results = new ArrayList<>(roster.size());
+        List<MatchParticipant> participants = new ArrayList<>();
+
+        for (User user : roster) {
+            if (user.getId().equals(match.getUser().getId())) {
+                continue;
+            }
+            if (alreadyParticipating.contains(user.getId())) {
+                results.add(new BulkInvitationResponseDTO.Result(user.getEmail(), null, user.getId(),
+                        AppException.Data.fromErrorCode(ErrorCode.MATCH_PARTICIPANT_ALREADY_EXISTS)));
+                continue;
+            }
+
+            participants.add(MatchParticipant.builder()
+                    .bookingMatch(match)
+                    .user(user)
+                    .status(ParticipantStatus.INVITED)
+                    .build());
+        }
+
+        if (!participants.isEmpty()) {
+            saveInvitations(match, participants);
+        }
+
+        for (MatchParticipant participant : participants) {
+            results.add(new BulkInvitationResponseDTO.Result(participant.getUser().getEmail(),
+                    participant.getId(), participant.getUser().getId(), null));
+        }
+        return new BulkInvitationResponseDTO(participants.size(), results);
+    }
+
+    // Inserts the participants and their requests in two batches, then mails them all as one batch
+    private void saveInvitations(BookingMatch match, List<MatchParticipant> participants) {
+        matchParticipantRepository.saveAll(participants);
+
+        User organizer = match.getUser();
+        String message = buildInvitationMessage(match, organizer.getUserName());
+        LocalDateTime now = LocalDateTime.now();
+        requestRepository.saveAll(participants.stream()
+                .map(participant -> Request.builder()
+                        .sender(organizer)
+                        .receiver(participant.getUser())
+                        .requestType(RequestType.MATCH_INVITATION)
+                        .status(ResponseStatus.PENDING)
+                        .sendTime(now)
+                        .requestMessage(message)
+                        .jokerId(participant.getId())
+                        .build())
+                .toList());
+
+        openMatchFeedService.invitationsSent(match.getId(), participants.size());
+        // Mail only once the rows are committed, so a rollback never leaves invitations without participants
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    emailService.sendInvitationEmails(participants);
+                }
+            });
+        } else {
+            emailService.sendInvitationEmails(participants);
+        }
+    }
+
     // ==============================
     // Respond to Invitation
     // ==============================
 
     @Override
+    @Transactional(rollbackFor = AppException.class)
     public MatchParticipant respondToInvitation(UUID participantId, ParticipantStatus status) throws AppException {
         if (participantId == null) throw new ValidationException(ErrorCode.INVALID_PARTICIPANT_ID);
         if (status == null) throw new ValidationException(ErrorCode.INVALID_PARTICIPANT_STATUS);
@@ -159,11 +344,19 @@ public class MatchParticipantServiceImpl implements MatchParticipantService {
         }
 
         if (status == ParticipantStatus.ACCEPTED) {
-            validateCapacity(participant.getBookingMatch());
+            playerScheduleService.claim(participant.getUser().getId(), participant.getBookingMatch());
+            claimSeat(participant.getBookingMatch());
         }
 
+        // Conditional on INVITED, so a concurrent second response is rejected and its seat rolled back
+        LocalDateTime respondedAt = LocalDateTime.now();
+        if (matchParticipantRepository.updateStatusIfCurrent(participantId, ParticipantStatus.INVITED,
+                status, respondedAt) == 0) {
+            throw new AlreadyExistsException(ErrorCode.MATCH_PARTICIPANT_ALREADY_RESPONDED);
+        }
         participant.setStatus(status);
-        participant.setRespondedAt(LocalDateTime.now());
+        participant.setRespondedAt(respondedAt);
+        openMatchFeedService.invitationAnswered(participant.getBookingMatch().getId(), status == ParticipantStatus.ACCEPTED);
 
         // Update request notification
         Request existingRequest = requestRepository.findByJokerId(participantId);
@@ -175,14 +368,8 @@ public class MatchParticipantServiceImpl implements MatchParticipantService {
                 status == ParticipantStatus.ACCEPTED ? ResponseStatus.ACCEPTED : ResponseStatus.REJECTED,
                 responseMsg);
 
-        // ✅ Save participant
-        MatchParticipant savedParticipant = matchParticipantRepository.save(participant);
-
-        // ✅ Check and update match status
-        updateMatchStatusIfFull(savedParticipant.getBookingMatch());
-
         emailService.sendResponseToMatchParticipantInvitation(participant, status);
-        return savedParticipant;
+        return participant;
     }
 
     public BookingMatch save(BookingMatch match) {
@@ -194,6 +381,7 @@ public class MatchParticipantServiceImpl implements MatchParticipantService {
     // ==============================
 
     @Override
+    @Transactional(rollbackFor = AppException.class)
     public MatchParticipant joinMatchAsOrganizer(UUID bookingMatchId, UUID organizerId) throws AppException {
         BookingMatch match = validateBookingMatch(bookingMatchId);
 
@@ -203,11 +391,14 @@ public class MatchParticipantServiceImpl implements MatchParticipantService {
         }
 
         ensureNotParticipant(match.getId(), organizerId);
-        validateCapacity(match);
 
         var organizer = userRepository.findById(organizerId)
                 .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND));
 
+        playerScheduleService.claim(organizerId, match);
+        claimSeat(match);
+        openMatchFeedService.seatTaken(match.getId());
+
         return matchParticipantRepository.save(
                 MatchParticipant.builder()
                         .bookingMatch(match)
@@ -232,68 +423,86 @@ public class MatchParticipantServiceImpl implements MatchParticipantService {
         return matchParticipantRepository.findByBookingMatchId(matchId);
     }
 
-    // Get all matches that a user has participated in
+    // Get all matches that a user has participated in, ordered by start time
     public List<UserMatchResponseDTO> getUserParticipatedMatches(UUID userId) throws AppException {
-        if (userId == null) {
-            throw new ValidationException(ErrorCode.INVALID_PARTICIPANT_ID);
-        }
+        validateParticipatingUser(userId);
+        return matchParticipantRepository.findUpcomingUserMatches(userId, BEGINNING_OF_TIME,
+                BEGINNING_OF_TIME, FIRST_ID, Limit.unlimited());
+    }
 
-        // Validate user existence
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND));
+    // Get details of all matches that a user has participated in, ordered by start time
+    public List<BookingDetailRespDTO> getUserParticipatedMatchesDetailed(UUID userId) throws AppException {
+        validateParticipatingUser(userId);
+        return matchParticipantRepository.findUpcomingUserMatchDetails(userId, BEGINNING_OF_TIME,
+                BEGINNING_OF_TIME, FIRST_ID, Limit.unlimited());
+    }
 
-        // Map to booking matches
-        return matchParticipantRepository.findByUserId(userId).stream()
-                .map(mp -> UserMatchResponseDTO.builder()
-                        .matchId(mp.getBookingMatch().getId())
-                        .participantId(mp.getId())   // Participant primary key
-                        .teamId(mp.getBookingMatch().getTeam().getId())
-                        .teamName(mp.getBookingMatch().getTeam().getName())
-                        .placeId(mp.getBookingMatch().getPlace().getId())
-                        .placeName(mp.getBookingMatch().getPlace().getName())
-                        .startTime(mp.getBookingMatch().getStartTime())
-                        .endTime(mp.getBookingMatch().getEndTime())
-                        .bookingStatus(mp.getBookingMatch().getStatus())
-                        .invitationStatus(mp.getStatus())   // INVITED, ACCEPTED, DECLINED
-                        .build())
-                .toList();
+    /**
+     * Keyset page of the matches a user participates in. Upcoming matches (not ended yet) come
+     * soonest first, past matches most recent first. The cursor is the opaque nextCursor of the
+     * previous page of the same scope.
+     */
+    public MatchPageResponseDTO<UserMatchResponseDTO> getUserParticipatedMatchesPage(UUID userId, boolean past,
+                                                                                   String cursor, int size)
+            throws AppException {
+        validateParticipatingUser(userId);
+        validatePageSize(size);
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        LocalDateTime now = LocalDateTime.now();
+        List<UserMatchResponseDTO> rows = past
+                ? matchParticipantRepository.findPastUserMatches(userId, now,
+                        after != null ? after.startTime() : END_OF_TIME, after != null ? after.id() : LAST_ID,
+                        Limit.of(size + 1))
+                : matchParticipantRepository.findUpcomingUserMatches(userId, now,
+                        after != null ? after.startTime() : BEGINNING_OF_TIME, after != null ? after.id() : FIRST_ID,
+                        Limit.of(size + 1));
+
+        return toPage(rows, size, match -> new KeysetCursor(match.startTime(), match.matchId()));
     }
 
-    public List<BookingDetailRespDTO> getUserParticipatedMatchesDetailed(UUID userId) throws AppException {
+    // Same as getUserParticipatedMatchesPage, with the full booking details of each match
+    public MatchPageResponseDTO<BookingDetailRespDTO> getUserParticipatedMatchesDetailedPage(UUID userId, boolean past,
+                                                                                           String cursor, int size)
+            throws AppException {
+        validateParticipatingUser(userId);
+        validatePageSize(size);
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingDetailRespDTO> rows = past
+                ? matchParticipantRepository.findPastUserMatchDetails(userId, now,
+                        after != null ? after.startTime() : END_OF_TIME, after != null ? after.id() : LAST_ID,
+                        Limit.of(size + 1))
+                : matchParticipantRepository.findUpcomingUserMatchDetails(userId, now,
+                        after != null ? after.startTime() : BEGINNING_OF_TIME, after != null ? after.id() : FIRST_ID,
+                        Limit.of(size + 1));
+
+        return toPage(rows, size, match -> new KeysetCursor(match.startTime(), match.id()));
+    }
+
+    private void validateParticipatingUser(UUID userId) throws AppException {
         if (userId == null) {
             throw new ValidationException(ErrorCode.INVALID_PARTICIPANT_ID);
         }
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException(ErrorCode.USER_NOT_FOUND);
+        }
+    }
 
-        // Validate user
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND));
+    private void validatePageSize(int size) throws ValidationException {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException(ErrorCode.INVALID_PAGE_SIZE);
+        }
+    }
 
-        // Fetch all participant entries for this user
-        List<MatchParticipant> participatedMatches = matchParticipantRepository.findByUserId(userId);
-
-        // Map to detailed response DTO
-        return participatedMatches.stream()
-                .map(mp -> {
-                    BookingMatch match = mp.getBookingMatch();
-                    return BookingDetailRespDTO.builder()
-                            .id(match.getId())
-                            .startTime(match.getStartTime())
-                            .endTime(match.getEndTime())
-                            .status(match.getStatus())
-                            .createdAt(match.getCreatedAt())
-
-                            .placeId(match.getPlace().getId())
-                            .placeName(match.getPlace().getName())
-
-                            .teamId(match.getTeam().getId())
-                            .teamName(match.getTeam().getName())
-
-                            .userId(match.getUser().getId())
-                            .userName(match.getUser().getUserName())
-                            .build();
-                })
-                .distinct()
-                .toList();
+    // Rows hold one extra item when there is a next page
+    private <T> MatchPageResponseDTO<T> toPage(List<T> rows, int size, Function<T, KeysetCursor> position) {
+        if (rows.size() <= size) {
+            return new MatchPageResponseDTO<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new MatchPageResponseDTO<>(items, position.apply(items.get(size - 1)).encode());
     }
 
 }
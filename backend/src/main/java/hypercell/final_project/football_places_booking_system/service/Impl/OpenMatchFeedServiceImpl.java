@@ -0,0 +1,196 @@
+package hypercell.final_project.football_places_booking_system.service.Impl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import hypercell.final_project.football_places_booking_system.exception.AppException;
+import hypercell.final_project.football_places_booking_system.exception.ValidationException;
+import hypercell.final_project.football_places_booking_system.model.db.BookingMatch;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.OpenMatchDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.MatchPartDTOs.MatchPageResponseDTO;
+import hypercell.final_project.football_places_booking_system.model.enums.ErrorCode;
+import hypercell.final_project.football_places_booking_system.model.enums.MatchStatus;
+import hypercell.final_project.football_places_booking_system.model.enums.ParticipantStatus;
+import hypercell.final_project.football_places_booking_system.model.enums.PlaceType;
+import hypercell.final_project.football_places_booking_system.repository.BookingMatchRepository;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.OpenMatchFeedService;
+import hypercell.final_project.football_places_booking_system.util.KeysetCursor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory feed of the upcoming PENDING_PLAYERS matches that still have free seats, ordered
+ * by start time. It is loaded once at startup and then kept up to date by the booking and
+ * participant services on create, invite, accept, decline, confirm and cancel, so serving
+ * the feed never counts participants. A match leaves the feed when it fills up, changes
+ * status or starts.
+ *
+ * Changes made inside a transaction are applied after it commits, so a rolled back
+ * invitation or acceptance never shows up in the feed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OpenMatchFeedServiceImpl implements OpenMatchFeedService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    // Smallest id under UUID.compareTo, which compares the two halves as signed longs
+    private static final UUID FIRST_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    private final BookingMatchRepository bookingMatchRepository;
+
+    private record FeedKey(LocalDateTime startTime, UUID matchId) {}
+
+    private static final Comparator<FeedKey> FEED_ORDER =
+            Comparator.comparing(FeedKey::startTime).thenComparing(FeedKey::matchId);
+
+    // (start time, match id) -> open match, and match id -> its key
+    private final ConcurrentSkipListMap<FeedKey, OpenMatchDTO> feed = new ConcurrentSkipListMap<>(FEED_ORDER);
+    private final Map<UUID, FeedKey> keys = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<OpenMatchDTO> open = bookingMatchRepository.findOpenMatches(MatchStatus.PENDING_PLAYERS,
+                ParticipantStatus.INVITED, LocalDateTime.now());
+        for (OpenMatchDTO match : open) {
+            if (match.remaining() > 0 && !keys.containsKey(match.matchId())) {
+                put(match);
+            }
+        }
+        log.info("Open match feed warmed up with {} matches", feed.size());
+    }
+
+    /**
+     * Page of open matches starting from now, optionally limited to one place type, one day
+     * and one place. The cursor is the opaque nextCursor of the previous page.
+     */
+    @Override
+    public MatchPageResponseDTO<OpenMatchDTO> getFeed(PlaceType placeType, LocalDate date, UUID placeId,
+                                                      String cursor, int size) throws AppException {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException(ErrorCode.INVALID_PAGE_SIZE);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        evictStarted(now);
+
+        FeedKey from = new FeedKey(date != null && date.atStartOfDay().isAfter(now) ? date.atStartOfDay() : now, FIRST_ID);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        NavigableMap<FeedKey, OpenMatchDTO> window = after != null && FEED_ORDER.compare(new FeedKey(after.startTime(), after.id()), from) >= 0
+                ? feed.tailMap(new FeedKey(after.startTime(), after.id()), false)
+                : feed.tailMap(from, true);
+        if (date != null) {
+            window = window.headMap(new FeedKey(date.plusDays(1).atStartOfDay(), FIRST_ID), false);
+        }
+
+        List<OpenMatchDTO> items = new ArrayList<>(size);
+        for (OpenMatchDTO match : window.values()) {
+            if ((placeType == null || match.placeType() == placeType)
+                    && (placeId == null || match.placeId().equals(placeId))) {
+                if (items.size() == size) {
+                    OpenMatchDTO last = items.get(size - 1);
+                    return new MatchPageResponseDTO<>(items, new KeysetCursor(last.startTime(), last.matchId()).encode());
+                }
+                items.add(match);
+            }
+        }
+        return new MatchPageResponseDTO<>(items, null);
+    }
+
+    @Override
+    public void matchListed(BookingMatch match) {
+        if (match.getStatus() != MatchStatus.PENDING_PLAYERS || match.getPlace() == null
+                || match.getPlace().getPlaceType() == null) {
+            return;
+        }
+
+        OpenMatchDTO open = new OpenMatchDTO(match.getId(), match.getPlace().getId(), match.getPlace().getName(),
+                match.getPlace().getPlaceType(),
+                match.getTeam() != null ? match.getTeam().getId() : null,
+                match.getTeam() != null ? match.getTeam().getName() : null,
+                match.getStartTime(), match.getEndTime(), match.getAcceptedCount(), 0);
+        afterCommit(() -> put(open));
+    }
+
+    @Override
+    public void matchDelisted(UUID matchId) {
+        afterCommit(() -> remove(matchId));
+    }
+
+    @Override
+    public void invitationsSent(UUID matchId, int count) {
+        afterCommit(() -> update(matchId, 0, count));
+    }
+
+    @Override
+    public void invitationAnswered(UUID matchId, boolean accepted) {
+        afterCommit(() -> update(matchId, accepted ? 1 : 0, -1));
+    }
+
+    @Override
+    public void seatTaken(UUID matchId) {
+        afterCommit(() -> update(matchId, 1, 0));
+    }
+
+    private void put(OpenMatchDTO match) {
+        FeedKey key = new FeedKey(match.startTime(), match.matchId());
+        keys.put(match.matchId(), key);
+        feed.put(key, match);
+    }
+
+    private void remove(UUID matchId) {
+        FeedKey key = keys.remove(matchId);
+        if (key != null) {
+            feed.remove(key);
+        }
+    }
+
+    // Applies a change in accepted seats and open invitations; a full match leaves the feed
+    private void update(UUID matchId, int acceptedDelta, int invitedDelta) {
+        FeedKey key = keys.get(matchId);
+        if (key == null) {
+            return;
+        }
+
+        OpenMatchDTO updated = feed.computeIfPresent(key, (k, match) ->
+                match.withCounts(match.accepted() + acceptedDelta, match.invited() + invitedDelta));
+        if (updated != null && updated.remaining() <= 0) {
+            remove(matchId);
+        }
+    }
+
+    private void evictStarted(LocalDateTime now) {
+        NavigableMap<FeedKey, OpenMatchDTO> started = feed.headMap(new FeedKey(now, FIRST_ID), true);
+        for (FeedKey key : started.keySet()) {
+            keys.remove(key.matchId());
+            feed.remove(key);
+        }
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
@@ -1,5 +1,8 @@
 package hypercell.final_project.football_places_booking_system.service.Impl;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import hypercell.final_project.football_places_booking_system.service.Interfaces.PlaceService;
@@ -15,11 +18,13 @@ import hypercell.final_project.football_places_booking_system.exception.NoDataEx
 import hypercell.final_project.football_places_booking_system.exception.NotFoundException;
 import hypercell.final_project.football_places_booking_system.exception.ValidationException;
 import hypercell.final_project.football_places_booking_system.model.db.Place;
+import hypercell.final_project.football_places_booking_system.model.dto.PlaceAvailabilityDTO;
 import hypercell.final_project.football_places_booking_system.model.dto.PlaceDTO;
 import hypercell.final_project.football_places_booking_system.model.dto.ResponseDTO;
 import hypercell.final_project.football_places_booking_system.model.enums.ErrorCode;
 import hypercell.final_project.football_places_booking_system.model.enums.PlaceType;
 import hypercell.final_project.football_places_booking_system.repository.PlaceRepository;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.BookingAvailabilityService;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -27,6 +32,7 @@ import lombok.RequiredArgsConstructor;
 public class PlaceServiceImpl implements PlaceService {
 
     private final PlaceRepository placeRepository;
+    private final BookingAvailabilityService bookingAvailabilityService;
 
     public PlaceDTO createPlace(PlaceDTO placeDto) throws AppException {
         if (placeDto.name() == null || placeDto.name().isEmpty()) {
@@ -58,7 +64,7 @@ public class PlaceServiceImpl implements PlaceService {
 
         Place newPlace = placeRepository.save(place);
 
-        return new PlaceDTO(
+        PlaceDTO created = new PlaceDTO(
                 newPlace.getId(),
                 newPlace.getName(),
                 newPlace.getDescription(),
@@ -66,6 +72,9 @@ public class PlaceServiceImpl implements PlaceService {
                 newPlace.getPlaceType(),
                 newPlace.getImageUrl()
             );
+        bookingAvailabilityService.putPlace(created);
+
+        return created;
     }
 
 
@@ -121,6 +130,52 @@ public class PlaceServiceImpl implements PlaceService {
         ));
     }
 
+    public PlaceAvailabilityDTO getDailyAvailability(UUID id, LocalDate date) throws AppException {
+        if (!placeRepository.existsById(id)) {
+            throw new NotFoundException(ErrorCode.PLACE_NOT_FOUND);
+        }
+
+        long[] busySlots = bookingAvailabilityService.getDailyBusySlots(id, date);
+
+        return new PlaceAvailabilityDTO(
+            id,
+            date,
+            BookingAvailabilityServiceImpl.SLOT_MINUTES,
+            BookingAvailabilityServiceImpl.SLOTS_PER_DAY,
+            toHex(busySlots, BookingAvailabilityServiceImpl.SLOTS_PER_DAY)
+        );
+    }
+
+    // Slot i is bit (i % 64) of word i / 64; each hex digit carries four consecutive slots, first slot in the high bit
+    private static String toHex(long[] bitmap, int slotCount) {
+        StringBuilder hex = new StringBuilder((slotCount + 3) / 4);
+        for (int first = 0; first < slotCount; first += 4) {
+            int nibble = 0;
+            for (int slot = first; slot < first + 4; slot++) {
+                nibble <<= 1;
+                if (slot < slotCount && (bitmap[slot / 64] & (1L << (slot % 64))) != 0) {
+                    nibble |= 1;
+                }
+            }
+            hex.append(Character.forDigit(nibble, 16));
+        }
+        return hex.toString();
+    }
+
+    public List<PlaceDTO> findAvailablePlaces(PlaceType placeType, LocalDateTime startTime, LocalDateTime endTime,
+                                              String name, String location) throws AppException {
+        // The availability index holds no bookings before today, so past windows would all look free
+        if (startTime == null || startTime.isBefore(LocalDateTime.now())) {
+            throw new ValidationException(ErrorCode.INVALID_BOOKING_START_TIME);
+        }
+
+        if (endTime == null || !startTime.isBefore(endTime)) {
+            throw new ValidationException(ErrorCode.INVALID_BOOKING_END_TIME);
+        }
+
+        return bookingAvailabilityService.findAvailablePlaces(placeType, startTime, endTime, name, location);
+    }
+
     public ResponseEntity<ResponseDTO> updatePlace(UUID id, PlaceDTO updatedPlace) throws AppException {
         Place place = placeRepository.findById(id).orElseThrow(() -> new NotFoundException(ErrorCode.PLACE_NOT_FOUND));
 
@@ -149,6 +204,14 @@ public class PlaceServiceImpl implements PlaceService {
         }
 
         placeRepository.save(place);
+        bookingAvailabilityService.putPlace(new PlaceDTO(
+            place.getId(),
+            place.getName(),
+            place.getDescription(),
+            place.getLocation(),
+            place.getPlaceType(),
+            place.getImageUrl()
+        ));
 
         return ResponseEntity.ok(new ResponseDTO(id, "Place updated successfully"));
     }
@@ -160,6 +223,7 @@ public class PlaceServiceImpl implements PlaceService {
         }
 
         placeRepository.deleteById(id);
+        bookingAvailabilityService.removePlace(id);
 
         return ResponseEntity.ok(new ResponseDTO(id, "Place deleted successfully"));
     }
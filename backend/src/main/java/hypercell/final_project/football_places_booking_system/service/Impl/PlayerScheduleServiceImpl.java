@@ -0,0 +1,128 @@
+package hypercell.final_project.football_places_booking_system.service.Impl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import hypercell.final_project.football_places_booking_system.exception.AppException;
+import hypercell.final_project.football_places_booking_system.exception.ValidationException;
+import hypercell.final_project.football_places_booking_system.model.db.BookingMatch;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingIntervalDTO;
+import hypercell.final_project.football_places_booking_system.model.enums.ErrorCode;
+import hypercell.final_project.football_places_booking_system.model.enums.MatchStatus;
+import hypercell.final_project.football_places_booking_system.model.enums.ParticipantStatus;
+import hypercell.final_project.football_places_booking_system.repository.MatchParticipantRepository;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.PlayerScheduleService;
+import hypercell.final_project.football_places_booking_system.util.IntervalSchedule;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory index of the matches each player has accepted, so accepting an invitation or
+ * joining a match checks for a clash with one O(log n) lookup instead of loading all of the
+ * player's participations. A player's schedule is loaded from the database the first time
+ * it is needed, with the matches ending after the index horizon (the start of the day the
+ * service started), and is then kept in sync by the participant and booking services.
+ *
+ * A claim is made before the participation is saved and is taken back if the transaction
+ * rolls back. When a match is cancelled or confirmed again, the schedules of its players
+ * are dropped after commit and reloaded on their next use.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PlayerScheduleServiceImpl implements PlayerScheduleService {
+
+    private static final LocalDateTime END_OF_TIME = LocalDateTime.of(9999, 12, 31, 23, 59);
+
+    private final MatchParticipantRepository matchParticipantRepository;
+
+    // user id -> accepted, non-cancelled matches of that user
+    private final Map<UUID, IntervalSchedule<BookingIntervalDTO>> schedules = new ConcurrentHashMap<>();
+    private final LocalDateTime indexHorizon = LocalDate.now().atStartOfDay();
+
+    /**
+     * Add the match to the player's schedule, or throw PLAYER_TIME_CONFLICT when it overlaps
+     * another match the player already accepted.
+     */
+    @Override
+    public void claim(UUID userId, BookingMatch match) throws AppException {
+        IntervalSchedule<BookingIntervalDTO> schedule = scheduleFor(userId);
+        BookingIntervalDTO interval = new BookingIntervalDTO(match.getId(),
+                match.getPlace() != null ? match.getPlace().getId() : null,
+                match.getTeam() != null ? match.getTeam().getId() : null,
+                match.getStartTime(), match.getEndTime());
+
+        if (!schedule.add(interval.startTime(), interval.endTime(), interval)) {
+            throw new ValidationException(ErrorCode.PLAYER_TIME_CONFLICT);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        schedule.remove(interval.startTime(), claimed -> claimed.id().equals(interval.id()));
+                    }
+                }
+            });
+        }
+    }
+
+    // The match was cancelled or reinstated: its players' schedules are reloaded on next use
+    @Override
+    public void matchChanged(UUID matchId) {
+        Runnable evict = () -> matchParticipantRepository
+                .findUserIdsByBookingMatchIdAndStatus(matchId, ParticipantStatus.ACCEPTED)
+                .forEach(schedules::remove);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
+    }
+
+    // Accepted matches of the player overlapping [from, to), ordered by start time
+    @Override
+    public List<BookingIntervalDTO> getBusyTimes(UUID userId, LocalDateTime from, LocalDateTime to) throws AppException {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new ValidationException(ErrorCode.INVALID_BOOKING_END_TIME);
+        }
+        if (from.isBefore(indexHorizon)) {
+            throw new ValidationException(ErrorCode.INVALID_BOOKING_START_TIME);
+        }
+
+        return scheduleFor(userId).overlapping(from, to).stream()
+                .map(IntervalSchedule.Interval::value)
+                .toList();
+    }
+
+    private IntervalSchedule<BookingIntervalDTO> scheduleFor(UUID userId) {
+        return schedules.computeIfAbsent(userId, this::loadSchedule);
+    }
+
+    private IntervalSchedule<BookingIntervalDTO> loadSchedule(UUID userId) {
+        IntervalSchedule<BookingIntervalDTO> schedule = new IntervalSchedule<>();
+
+        for (BookingIntervalDTO interval : matchParticipantRepository.findIntervalsByUserIdInWindow(userId,
+                ParticipantStatus.ACCEPTED, MatchStatus.CANCELLED, indexHorizon, END_OF_TIME)) {
+            if (!schedule.add(interval.startTime(), interval.endTime(), interval)) {
+                log.warn("Match {} overlaps another accepted match of user {}", interval.id(), userId);
+            }
+        }
+        return schedule;
+    }
+}
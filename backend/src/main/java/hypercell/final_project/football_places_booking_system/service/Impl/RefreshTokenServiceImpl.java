@@ -0,0 +1,147 @@
+package hypercell.final_project.football_places_booking_system.service.Impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import hypercell.final_project.football_places_booking_system.exception.AppException;
+import hypercell.final_project.football_places_booking_system.exception.InvalidCredentialsException;
+import hypercell.final_project.football_places_booking_system.model.db.RefreshToken;
+import hypercell.final_project.football_places_booking_system.model.db.User;
+import hypercell.final_project.football_places_booking_system.model.dto.AuthDTO;
+import hypercell.final_project.football_places_booking_system.model.enums.ErrorCode;
+import hypercell.final_project.football_places_booking_system.model.enums.UserStatus;
+import hypercell.final_project.football_places_booking_system.repository.RefreshTokenRepository;
+import hypercell.final_project.football_places_booking_system.repository.UserRepository;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.RefreshTokenService;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Short-lived access tokens paired with rotating refresh tokens. Every refresh spends the
+ * refresh token it was given and hands out a new pair. Presenting a spent refresh token again
+ * means it leaked, so every session of its user is revoked.
+ */
+@Slf4j
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtServiceImpl jwtService;
+    private final TokenRevocationService tokenRevocationService;
+    private final long refreshTokenLifetimeMillis;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenServiceImpl(
+            RefreshTokenRepository refreshTokenRepository,
+            UserRepository userRepository,
+            JwtServiceImpl jwtService,
+            TokenRevocationService tokenRevocationService,
+            @Value("${app.security.jwt.refresh-expiration}") long refreshTokenLifetimeMillis
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.jwtService = jwtService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.refreshTokenLifetimeMillis = refreshTokenLifetimeMillis;
+    }
+
+    @Override
+    public AuthDTO issueTokens(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .userId(user.getId())
+                .tokenHash(hash(refreshToken))
+                .expiresAt(LocalDateTime.now().plusNanos(refreshTokenLifetimeMillis * 1_000_000))
+                .build());
+
+        return new AuthDTO(user.getId(), jwtService.generateToken(user), user.getRole(), refreshToken);
+    }
+
+    @Override
+    public AuthDTO refresh(String refreshToken) throws AppException {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new InvalidCredentialsException(ErrorCode.INVALID_REFRESH_TOKEN);
+        }
+
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new InvalidCredentialsException(ErrorCode.INVALID_REFRESH_TOKEN));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (stored.getRevokedAt() != null || refreshTokenRepository.revokeIfActive(stored.getId(), now) == 0) {
+            log.warn("Spent refresh token presented again for user {}, revoking all of their sessions", stored.getUserId());
+            revokeAll(stored.getUserId());
+            throw new InvalidCredentialsException(ErrorCode.INVALID_REFRESH_TOKEN);
+        }
+        if (stored.getExpiresAt().isBefore(now)) {
+            throw new InvalidCredentialsException(ErrorCode.INVALID_REFRESH_TOKEN);
+        }
+
+        User user = userRepository.findById(stored.getUserId())
+                .orElseThrow(() -> new InvalidCredentialsException(ErrorCode.INVALID_REFRESH_TOKEN));
+        if (user.getStatus() == UserStatus.INACTIVE) {
+            throw new InvalidCredentialsException(ErrorCode.FORBIDDEN_STATUS);
+        }
+
+        return issueTokens(user);
+    }
+
+    // Ends one session: its refresh token can no longer be used and its access token is revoked
+    @Override
+    public void logout(String refreshToken, String accessToken) {
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                    .ifPresent(stored -> refreshTokenRepository.revokeIfActive(stored.getId(), LocalDateTime.now()));
+        }
+
+        if (accessToken != null) {
+            try {
+                Claims claims = jwtService.extractAllClaims(accessToken);
+                tokenRevocationService.revokeToken(claims);
+            } catch (JwtException | IllegalArgumentException e) {
+                // Expired or forged access tokens need no revocation
+            }
+        }
+    }
+
+    // Ends every session of a user, for bans and deleted accounts
+    @Override
+    public void revokeAll(UUID userId) {
+        refreshTokenRepository.revokeAllByUserId(userId, LocalDateTime.now());
+        tokenRevocationService.revokeUser(userId);
+    }
+
+    @Scheduled(initialDelay = 3_600_000, fixedDelay = 3_600_000)
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package hypercell.final_project.football_places_booking_system.service.Impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import hypercell.final_project.football_places_booking_system.exception.AppException;
+import hypercell.final_project.football_places_booking_system.exception.ForbiddenActionException;
+import hypercell.final_project.football_places_booking_system.exception.NotFoundException;
+import hypercell.final_project.football_places_booking_system.exception.ValidationException;
+import hypercell.final_project.football_places_booking_system.model.db.BookingMatch;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.SlotHoldDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.SlotHoldResponseDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingSlotUpdateMessage;
+import hypercell.final_project.football_places_booking_system.model.enums.ErrorCode;
+import hypercell.final_project.football_places_booking_system.repository.PlaceRepository;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.BookingAvailabilityService;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.SlotHoldService;
+import hypercell.final_project.football_places_booking_system.util.HashedTimerWheel;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Short reservation holds that block a slot while its booking form is being filled in.
+ * Holds are kept only in memory: the slot itself is blocked in the availability index and
+ * the hold is expired by a single timer wheel, so tens of thousands of holds cost one
+ * thread and no database rows. Every change is broadcast on /topic/bookings.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SlotHoldServiceImpl implements SlotHoldService {
+
+    public static final Duration HOLD_DURATION = Duration.ofMinutes(5);
+    private static final int MAX_HOLDS_PER_USER = 3;
+
+    private final BookingAvailabilityService bookingAvailabilityService;
+    private final PlaceRepository placeRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private record Hold(UUID id, UUID placeId, UUID ownerId, LocalDateTime startTime, LocalDateTime endTime,
+                        LocalDateTime expiresAt, HashedTimerWheel<UUID>.Timeout timeout) {}
+
+    // hold id -> hold, and owner id -> ids of that owner's holds
+    private final Map<UUID, Hold> holds = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<UUID>> holdsByOwner = new ConcurrentHashMap<>();
+
+    private final HashedTimerWheel<UUID> timerWheel =
+            new HashedTimerWheel<>("slot-hold-timer", Duration.ofSeconds(1), 512, this::expire);
+
+    @PreDestroy
+    public void shutdown() {
+        timerWheel.close();
+    }
+
+    @Override
+    public SlotHoldResponseDTO createHold(SlotHoldDTO dto, UUID userId) throws AppException {
+        if (dto.placeId() == null) {
+            throw new ValidationException(ErrorCode.INVALID_PLACE_ID);
+        }
+        if (dto.startTime() == null || dto.startTime().isBefore(LocalDateTime.now())) {
+            throw new ValidationException(ErrorCode.INVALID_BOOKING_START_TIME);
+        }
+        if (dto.endTime() == null || !dto.startTime().isBefore(dto.endTime())) {
+            throw new ValidationException(ErrorCode.INVALID_BOOKING_END_TIME);
+        }
+        if (!placeRepository.existsById(dto.placeId())) {
+            throw new NotFoundException(ErrorCode.PLACE_NOT_FOUND);
+        }
+
+        UUID holdId = UUID.randomUUID();
+        while (true) {
+            Set<UUID> ownHolds = holdsByOwner.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet());
+            synchronized (ownHolds) {
+                // forget drops a set once it is empty; start over with the owner's current one
+                if (holdsByOwner.get(userId) != ownHolds) {
+                    continue;
+                }
+                if (ownHolds.size() >= MAX_HOLDS_PER_USER) {
+                    throw new ValidationException(ErrorCode.SLOT_HOLD_LIMIT_REACHED);
+                }
+                if (!bookingAvailabilityService.hold(dto.placeId(), dto.startTime(), dto.endTime(), holdId, userId)) {
+                    throw new ValidationException(ErrorCode.TIME_SLOT_UNAVAILABLE);
+                }
+                ownHolds.add(holdId);
+                break;
+            }
+        }
+
+        Hold hold = new Hold(holdId, dto.placeId(), userId, dto.startTime(), dto.endTime(),
+                LocalDateTime.now().plus(HOLD_DURATION), timerWheel.schedule(holdId, HOLD_DURATION));
+        holds.put(holdId, hold);
+        notifySlotChanged(hold);
+
+        return new SlotHoldResponseDTO(hold.id(), hold.placeId(), hold.startTime(), hold.endTime(), hold.expiresAt());
+    }
+
+    @Override
+    public void releaseHold(UUID holdId, UUID userId) throws AppException {
+        Hold hold = holds.get(holdId);
+        if (hold == null) {
+            throw new NotFoundException(ErrorCode.SLOT_HOLD_NOT_FOUND);
+        }
+        if (!hold.ownerId().equals(userId)) {
+            throw new ForbiddenActionException(ErrorCode.FORBIDDEN);
+        }
+
+        hold.timeout().cancel();
+        drop(hold);
+    }
+
+    /**
+     * Forget the holds taken over by a new booking. The availability index already replaced
+     * them with the booking, this only frees the owner's hold allowance and the timers.
+     */
+    @Override
+    public void forgetHoldsOf(BookingMatch match) {
+        if (match.getUser() == null) {
+            return;
+        }
+
+        Set<UUID> ownHolds = holdsByOwner.get(match.getUser().getId());
+        if (ownHolds == null) {
+            return;
+        }
+
+        for (UUID holdId : ownHolds) {
+            Hold hold = holds.get(holdId);
+            if (hold != null && hold.placeId().equals(match.getPlace().getId())
+                    && hold.startTime().isBefore(match.getEndTime()) && hold.endTime().isAfter(match.getStartTime())) {
+                hold.timeout().cancel();
+                forget(hold);
+            }
+        }
+    }
+
+    // Runs on the timer wheel thread
+    private void expire(UUID holdId) {
+        Hold hold = holds.get(holdId);
+        if (hold != null) {
+            log.debug("Slot hold {} for place {} expired", holdId, hold.placeId());
+            drop(hold);
+        }
+    }
+
+    private void drop(Hold hold) {
+        forget(hold);
+        if (bookingAvailabilityService.releaseHold(hold.placeId(), hold.startTime(), hold.endTime(), hold.id())) {
+            notifySlotChanged(hold);
+        }
+    }
+
+    private void forget(Hold hold) {
+        holds.remove(hold.id());
+        // The owner's last hold takes the owner's entry with it; createHold checks under the same
+        // lock that the set it counts against is still the owner's
+        Set<UUID> ownHolds = holdsByOwner.get(hold.ownerId());
+        if (ownHolds != null) {
+            synchronized (ownHolds) {
+                ownHolds.remove(hold.id());
+                if (ownHolds.isEmpty()) {
+                    holdsByOwner.remove(hold.ownerId(), ownHolds);
+                }
+            }
+        }
+    }
+
+    private void notifySlotChanged(Hold hold) {
+        messagingTemplate.convertAndSend("/topic/bookings", new BookingSlotUpdateMessage(
+                hold.placeId(),
+                hold.startTime().toLocalDate().toString()
+        ));
+    }
+}
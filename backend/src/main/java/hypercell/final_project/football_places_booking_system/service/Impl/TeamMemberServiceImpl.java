@@ -1,6 +1,7 @@
 package hypercell.final_project.football_places_booking_system.service.Impl;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -34,6 +35,7 @@ import hypercell.final_project.football_places_booking_system.repository.UserRep
 import hypercell.final_project.football_places_booking_system.service.Interfaces.EmailService;
 import hypercell.final_project.football_places_booking_system.service.Interfaces.RequestService;
 import hypercell.final_project.football_places_booking_system.service.Interfaces.TeamMemberService;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.TeamRoleService;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -50,6 +52,7 @@ public class TeamMemberServiceImpl implements TeamMemberService {
     private final EmailService emailService;
     private final RequestService requestService;
     private final RequestRepository requestRepository;
+    private final TeamRoleService teamRoleService;
 
     @Override
     public void realTimeNotify(UUID receiverId) {
@@ -77,6 +80,7 @@ public class TeamMemberServiceImpl implements TeamMemberService {
                 .build();
 
         TeamMember savedMember = teamMemberRepository.save(teamMember);
+        teamRoleService.memberChanged(request.userId(), teamId);
         return mapToTeamMemberResponse(savedMember);
     }
 
@@ -108,7 +112,9 @@ public class TeamMemberServiceImpl implements TeamMemberService {
         if (teamMemberUpdateRequest.role() != null) teamMember.setRole(teamMemberUpdateRequest.role());
         if (teamMemberUpdateRequest.status() != null) teamMember.setStatus(teamMemberUpdateRequest.status());
 
-        return mapToTeamMemberResponse(teamMemberRepository.save(teamMember));
+        TeamMember savedMember = teamMemberRepository.save(teamMember);
+        teamRoleService.memberChanged(savedMember.getUser().getId(), savedMember.getTeam().getId());
+        return mapToTeamMemberResponse(savedMember);
     }
 
 
@@ -123,16 +129,19 @@ public class TeamMemberServiceImpl implements TeamMemberService {
                 .build();
     }
     public boolean isOrganizer(UUID userId, UUID teamId) throws NotFoundException {
-        System.out.println("Checking organizer: user=" + userId + ", team=" + teamId);
-
-        Team team = teamRepository.findById(teamId)
-                .orElseThrow(() -> new NotFoundException(ErrorCode.TEAM_NOT_FOUND));
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND));
+        Optional<TeamRole> role = teamRoleService.findRole(userId, teamId);
+        if (role.isPresent()) {
+            return role.get() == TeamRole.ORGANIZER;
+        }
 
-        return teamMemberRepository.findByTeamAndUser(team, user)
-                .map(tm -> tm.getRole() == TeamRole.ORGANIZER)
-                .orElse(false);
+        // Not a member: an unknown team or user is still reported as such
+        if (!teamRepository.existsById(teamId)) {
+            throw new NotFoundException(ErrorCode.TEAM_NOT_FOUND);
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException(ErrorCode.USER_NOT_FOUND);
+        }
+        return false;
     }
     public TeamMemberResponse inviteByEmail(String email, UUID teamId, User inviterUser) throws AppException {
         UUID invitedById = inviterUser.getId();
@@ -207,6 +216,7 @@ public class TeamMemberServiceImpl implements TeamMemberService {
 
         // Save the team member
         teamMember = teamMemberRepository.save(teamMember);
+        teamRoleService.memberChanged(teamMember.getUser().getId(), teamMember.getTeam().getId());
 
         // Update the Request entity status with meaningful response message
         ResponseStatus responseStatus = request == TeamStatus.APPROVED ? ResponseStatus.ACCEPTED : ResponseStatus.REJECTED;
@@ -267,6 +277,7 @@ public class TeamMemberServiceImpl implements TeamMemberService {
                 .build();
 
         teamMember = teamMemberRepository.save(teamMember);
+        teamRoleService.memberChanged(user.getId(), teamId);
 
         // Create Request entity for the join request with meaningful message
         String requestMessage = String.format("%s is asking to join %s",
@@ -326,6 +337,7 @@ public class TeamMemberServiceImpl implements TeamMemberService {
         }
 
         teamMemberRepository.save(teamMember);
+        teamRoleService.memberChanged(teamMember.getUser().getId(), teamMember.getTeam().getId());
 
         return mapToTeamMemberResponse(teamMember);
     }
@@ -344,6 +356,7 @@ public class TeamMemberServiceImpl implements TeamMemberService {
             }
         }
         teamMemberRepository.delete(teamMember);
+        teamRoleService.memberChanged(teamMember.getUser().getId(), teamMember.getTeam().getId());
     }
 
     @Override
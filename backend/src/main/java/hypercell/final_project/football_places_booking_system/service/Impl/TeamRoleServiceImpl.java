@@ -0,0 +1,193 @@
+package hypercell.final_project.football_places_booking_system.service.Impl;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import hypercell.final_project.football_places_booking_system.model.enums.TeamRole;
+import hypercell.final_project.football_places_booking_system.repository.TeamMemberRepository;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.TeamRoleService;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Role of a user in a team, as used by the @authService team guards and isOrganizer. Answers
+ * come from a per-request memo first, then from a cache shared by all requests that holds a
+ * role, or the lack of one, for ROLE_TTL. Every change to a team membership must call
+ * memberChanged, and a deleted team teamChanged; the entry is dropped at once and again
+ * when the transaction completes, whether it commits or rolls back. Until then the
+ * transaction's own reads of a changed key skip the shared cache, so an uncommitted role is
+ * never handed to other requests. Each drop also bumps a generation counter of the key and
+ * of the team, and a read that loaded its role before a bump takes its entry back out, so a
+ * value read from the database just before the commit never outlives the evict.
+ */
+@Service
+@RequiredArgsConstructor
+public class TeamRoleServiceImpl implements TeamRoleService {
+
+    private static final Duration ROLE_TTL = Duration.ofMinutes(5);
+    private static final int MAX_CACHED_ROLES = 50_000;
+    private static final String REQUEST_MEMO = TeamRoleServiceImpl.class.getName() + ".roles";
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final TeamMemberRepository teamMemberRepository;
+
+    private record RoleKey(UUID userId, UUID teamId) {}
+
+    private record CachedRole(Optional<TeamRole> role, long loadedAtMillis) {}
+
+    // Keys and teams changed by the current transaction and not yet committed or rolled back
+    private record PendingChanges(Set<RoleKey> members, Set<UUID> teams) {}
+
+    private final Map<RoleKey, CachedRole> roles = new ConcurrentHashMap<>();
+    // Only ever incremented; keys sharing a stripe just see a few more reloads
+    private final AtomicLongArray memberGenerations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLongArray teamGenerations = new AtomicLongArray(GENERATION_STRIPES);
+
+    @Override
+    public Optional<TeamRole> findRole(UUID userId, UUID teamId) {
+        RoleKey key = new RoleKey(userId, teamId);
+        Map<RoleKey, Optional<TeamRole>> memo = requestMemo();
+        if (memo != null && memo.containsKey(key)) {
+            return memo.get(key);
+        }
+
+        long now = System.currentTimeMillis();
+        CachedRole cached = roles.get(key);
+        PendingChanges pending = pendingChanges(false);
+        Optional<TeamRole> role;
+        if (pending != null && (pending.members().contains(key) || pending.teams().contains(teamId))) {
+            // This transaction changed the membership; its view stays out of the shared cache
+            role = teamMemberRepository.findRoleByUserIdAndTeamId(userId, teamId);
+        } else if (cached != null && now - cached.loadedAtMillis() < ROLE_TTL.toMillis()) {
+            role = cached.role();
+        } else {
+            int memberStripe = stripe(key);
+            int teamStripe = stripe(teamId);
+            long memberGeneration = memberGenerations.get(memberStripe);
+            long teamGeneration = teamGenerations.get(teamStripe);
+
+            role = teamMemberRepository.findRoleByUserIdAndTeamId(userId, teamId);
+            if (roles.size() >= MAX_CACHED_ROLES) {
+                roles.values().removeIf(entry -> now - entry.loadedAtMillis() >= ROLE_TTL.toMillis());
+                if (roles.size() >= MAX_CACHED_ROLES) {
+                    roles.clear();
+                }
+            }
+            CachedRole entry = new CachedRole(role, now);
+            roles.put(key, entry);
+
+            // An evict that ran since the read may have missed this entry; take it back out
+            if (memberGenerations.get(memberStripe) != memberGeneration
+                    || teamGenerations.get(teamStripe) != teamGeneration) {
+                roles.remove(key, entry);
+            }
+        }
+
+        if (memo != null) {
+            memo.put(key, role);
+        }
+        return role;
+    }
+
+    @Override
+    public void memberChanged(UUID userId, UUID teamId) {
+        RoleKey key = new RoleKey(userId, teamId);
+        PendingChanges pending = pendingChanges(true);
+        if (pending != null) {
+            pending.members().add(key);
+        }
+
+        evictNowAndOnCompletion(() -> {
+            memberGenerations.incrementAndGet(stripe(key));
+            roles.remove(key);
+
+            Map<RoleKey, Optional<TeamRole>> memo = requestMemo();
+            if (memo != null) {
+                memo.remove(key);
+            }
+        });
+    }
+
+    @Override
+    public void teamChanged(UUID teamId) {
+        PendingChanges pending = pendingChanges(true);
+        if (pending != null) {
+            pending.teams().add(teamId);
+        }
+
+        evictNowAndOnCompletion(() -> {
+            teamGenerations.incrementAndGet(stripe(teamId));
+            roles.keySet().removeIf(key -> key.teamId().equals(teamId));
+
+            Map<RoleKey, Optional<TeamRole>> memo = requestMemo();
+            if (memo != null) {
+                memo.keySet().removeIf(key -> key.teamId().equals(teamId));
+            }
+        });
+    }
+
+    // A rolled back change must be evicted too: the transaction may have read and memoized its role
+    private void evictNowAndOnCompletion(Runnable evict) {
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            });
+        }
+    }
+
+    // The current transaction's pending changes, bound on its first change when create is set; null outside a transaction
+    private PendingChanges pendingChanges(boolean create) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null && create) {
+            pending = new PendingChanges(new HashSet<>(), new HashSet<>());
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TeamRoleServiceImpl.this);
+                }
+            });
+        }
+        return pending;
+    }
+
+    private static int stripe(Object key) {
+        return Math.floorMod(key.hashCode(), GENERATION_STRIPES);
+    }
+
+    // Roles already looked up by the current request, or null outside of a request
+    @SuppressWarnings("unchecked")
+    private Map<RoleKey, Optional<TeamRole>> requestMemo() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+
+        Object memo = attributes.getAttribute(REQUEST_MEMO, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            memo = new HashMap<RoleKey, Optional<TeamRole>>();
+            attributes.setAttribute(REQUEST_MEMO, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Map<RoleKey, Optional<TeamRole>>) memo;
+    }
+}
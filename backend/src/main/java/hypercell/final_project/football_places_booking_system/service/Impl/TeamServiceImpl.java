@@ -32,6 +32,7 @@ import hypercell.final_project.football_places_booking_system.repository.Request
 import hypercell.final_project.football_places_booking_system.repository.TeamMemberRepository;
 import hypercell.final_project.football_places_booking_system.repository.TeamRepository;
 import hypercell.final_project.football_places_booking_system.repository.UserRepository;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.TeamRoleService;
 import hypercell.final_project.football_places_booking_system.service.Interfaces.TeamService;
 import lombok.AllArgsConstructor;
 
@@ -43,6 +44,7 @@ public class TeamServiceImpl implements TeamService {
     private final TeamMemberRepository teamMemberRepository;
     private final UserRepository userRepository;
     private final RequestRepository requestRepository;
+    private final TeamRoleService teamRoleService;
 
     @Override
     public TeamResponse createTeam(TeamCreationRequest teamCreationRequest, UUID creatorid) throws AppException {
@@ -80,6 +82,7 @@ public class TeamServiceImpl implements TeamService {
         organizerMember.setTeam(team);
 
         teamMemberRepository.save(organizerMember);
+        teamRoleService.memberChanged(creatorUser.getId(), team.getId());
 
         team.getTeamMembers().add(organizerMember);
 
@@ -162,6 +165,7 @@ public class TeamServiceImpl implements TeamService {
 
         // Now delete the team (this will cascade delete team members due to relationship)
         teamRepository.delete(team);
+        teamRoleService.teamChanged(teamId);
 
         return ResponseEntity.ok(new ResponseDTO(teamId, "Team deleted successfully"));
     }
@@ -0,0 +1,133 @@
+package hypercell.final_project.football_places_booking_system.service.Impl;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import hypercell.final_project.football_places_booking_system.model.db.TokenRevocation;
+import hypercell.final_project.football_places_booking_system.repository.TokenRevocationRepository;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.TokenRevocationService;
+import hypercell.final_project.football_places_booking_system.util.BloomFilter;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Revocation of access tokens before they expire, for logout and for banned or deleted users.
+ * Revocations are rows of token_revocation; the hot path only consults a Bloom filter of the
+ * revoked token ids and user ids, and probes the table on a filter hit. Most requests carry
+ * neither, so they never touch the database.
+ *
+ * The filter is rebuilt from the table at startup and periodically, dropping rows whose tokens
+ * have all expired. Revocations made by this instance are added to the filter at once; those
+ * made by another instance are seen from its next rebuild.
+ */
+@Slf4j
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    private static final int MIN_FILTER_KEYS = 1024;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final long accessTokenLifetimeMillis;
+
+    private volatile BloomFilter revoked = BloomFilter.create(MIN_FILTER_KEYS, FALSE_POSITIVE_RATE);
+
+    public TokenRevocationServiceImpl(
+            TokenRevocationRepository tokenRevocationRepository,
+            @Value("${app.security.jwt.expiration}") long accessTokenLifetimeMillis
+    ) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.accessTokenLifetimeMillis = accessTokenLifetimeMillis;
+    }
+
+    @Override
+    public boolean isRevoked(Claims claims) {
+        BloomFilter filter = revoked;
+        String tokenId = claims.getId();
+        String userId = claims.get("userId", String.class);
+
+        if (tokenId != null && filter.mightContain(tokenKey(tokenId))
+                && tokenRevocationRepository.existsByTokenId(UUID.fromString(tokenId))) {
+            return true;
+        }
+        return userId != null && claims.getIssuedAt() != null && filter.mightContain(userKey(userId))
+                && tokenRevocationRepository.existsByUserIdAndTokenIdIsNullAndRevokedAtGreaterThan(
+                        UUID.fromString(userId), toLocalDateTime(claims.getIssuedAt()));
+    }
+
+    @Override
+    public synchronized void revokeToken(Claims claims) {
+        String tokenId = claims.getId();
+        String userId = claims.get("userId", String.class);
+        if (tokenId == null || userId == null || claims.getExpiration() == null) {
+            return;
+        }
+
+        tokenRevocationRepository.save(TokenRevocation.builder()
+                .tokenId(UUID.fromString(tokenId))
+                .userId(UUID.fromString(userId))
+                .revokedAt(LocalDateTime.now())
+                .expiresAt(toLocalDateTime(claims.getExpiration()))
+                .build());
+        revoked.add(tokenKey(tokenId));
+    }
+
+    @Override
+    public synchronized void revokeUser(UUID userId) {
+        LocalDateTime now = LocalDateTime.now();
+        // iat has second precision, so the cut-off does too: tokens issued in an earlier second are
+        // revoked, and a login right after the revocation, in the same second, is not
+        tokenRevocationRepository.save(TokenRevocation.builder()
+                .userId(userId)
+                .revokedAt(now.truncatedTo(ChronoUnit.SECONDS))
+                .expiresAt(now.plusNanos(accessTokenLifetimeMillis * 1_000_000))
+                .build());
+        revoked.add(userKey(userId.toString()));
+        log.info("Revoked all access tokens of user {}", userId);
+    }
+
+    /**
+     * Replace the filter with one built from the live rows. Runs under the same lock as the
+     * revocations, so none can be added between reading the table and swapping the filter.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.security.jwt.revocation-rebuild-interval:300000}",
+            fixedDelayString = "${app.security.jwt.revocation-rebuild-interval:300000}")
+    public synchronized void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = tokenRevocationRepository.deleteExpired(now);
+        List<TokenRevocation> live = tokenRevocationRepository.findByExpiresAtAfter(now);
+
+        // Twice the live rows, so revocations until the next rebuild keep the error rate down
+        BloomFilter filter = BloomFilter.create(Math.max(MIN_FILTER_KEYS, live.size() * 2), FALSE_POSITIVE_RATE);
+        for (TokenRevocation revocation : live) {
+            filter.add(revocation.getTokenId() != null
+                    ? tokenKey(revocation.getTokenId().toString())
+                    : userKey(revocation.getUserId().toString()));
+        }
+        revoked = filter;
+        log.debug("Rebuilt the token revocation filter from {} rows, purged {}", live.size(), purged);
+    }
+
+    private static String tokenKey(String tokenId) {
+        return "token:" + tokenId;
+    }
+
+    private static String userKey(String userId) {
+        return "user:" + userId;
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+}
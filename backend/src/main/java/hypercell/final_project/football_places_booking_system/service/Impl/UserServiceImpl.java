@@ -2,6 +2,9 @@ package hypercell.final_project.football_places_booking_system.service.Impl;
 
 import java.util.UUID;
 
+import hypercell.final_project.football_places_booking_system.service.Interfaces.CustomUserDetailsService;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.RefreshTokenService;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.TokenRevocationService;
 import hypercell.final_project.football_places_booking_system.service.Interfaces.UserService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -34,6 +37,9 @@ import lombok.RequiredArgsConstructor;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CustomUserDetailsService customUserDetailsService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
 
     public void register(UserDTO userDTO) throws AppException {
         if (userDTO.username() == null || userDTO.username().isEmpty()) {
@@ -206,6 +212,7 @@ public class UserServiceImpl implements UserService {
             user.setPassword(passwordEncoder.encode(userDTO.password()));
         }
 
+        boolean roleChanged = userDTO.role() != null && userDTO.role() != user.getRole();
         if (userDTO.role() != null) {
             user.setRole(userDTO.role());
         }
@@ -215,11 +222,24 @@ public class UserServiceImpl implements UserService {
         }
 
         userRepository.save(user);
+        // Drop the cached principal and the claims of tokens issued before the change
+        customUserDetailsService.evict(user.getEmail());
+        if (userDTO.status() == UserStatus.INACTIVE) {
+            // A deactivated user is signed out everywhere
+            refreshTokenService.revokeAll(user.getId());
+        } else if (roleChanged) {
+            // Other instances trust the role claim of live tokens; revoking them makes the user
+            // refresh and get a token with the new role
+            tokenRevocationService.revokeUser(user.getId());
+        }
         return ResponseEntity.ok(new ResponseDTO(id, "User updated successfully"));
     }
 
     public ResponseEntity<BooleanResponseDTO> checkPassword(User user, PasswordDTO password) {
-        boolean isMatch = passwordEncoder.matches(password.password(), user.getPassword());
+        // The principal may come from the token or the principal cache, so the hash is read fresh
+        boolean isMatch = userRepository.findById(user.getId())
+                .map(current -> passwordEncoder.matches(password.password(), current.getPassword()))
+                .orElse(false);
         return ResponseEntity.ok(new BooleanResponseDTO(isMatch));
     }
 
@@ -228,7 +248,9 @@ public class UserServiceImpl implements UserService {
         if (user == null) {
             throw new NotFoundException(ErrorCode.USER_NOT_FOUND);
         }
+        refreshTokenService.revokeAll(user.getId());
         userRepository.delete(user);
+        customUserDetailsService.evict(user.getEmail());
         
         return ResponseEntity.ok(new ResponseDTO(id, "User deleted successfully"));
     }
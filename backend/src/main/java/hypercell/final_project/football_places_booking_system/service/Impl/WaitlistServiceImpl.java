@@ -0,0 +1,269 @@
+package hypercell.final_project.football_places_booking_system.service.Impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import hypercell.final_project.football_places_booking_system.exception.AlreadyExistsException;
+import hypercell.final_project.football_places_booking_system.exception.AppException;
+import hypercell.final_project.football_places_booking_system.exception.ForbiddenActionException;
+import hypercell.final_project.football_places_booking_system.exception.NotFoundException;
+import hypercell.final_project.football_places_booking_system.exception.ValidationException;
+import hypercell.final_project.football_places_booking_system.model.db.BookingMatch;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.WaitlistEntryResponseDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingSlotUpdateMessage;
+import hypercell.final_project.football_places_booking_system.model.enums.ErrorCode;
+import hypercell.final_project.football_places_booking_system.model.enums.MatchStatus;
+import hypercell.final_project.football_places_booking_system.repository.PlaceRepository;
+import hypercell.final_project.football_places_booking_system.repository.TeamRepository;
+import hypercell.final_project.football_places_booking_system.repository.UserRepository;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.BookingAvailabilityService;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.OpenMatchFeedService;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.TeamMemberService;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.WaitlistService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory waitlists for booked slots. Each place keeps its waiting teams in a map ordered
+ * by slot start, so a cancellation only looks at the entries whose slot can overlap the
+ * freed interval. Entries are served first come, first served by join order, and each slot
+ * accepts at most MAX_ENTRIES_PER_SLOT teams.
+ *
+ * When a booking is cancelled the waiting teams are promoted straight away: a booking is
+ * created for them through the availability index and their organizer is notified. Entries
+ * whose slot has started are purged periodically.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private static final int MAX_ENTRIES_PER_SLOT = 10;
+
+    private final BookingAvailabilityService bookingAvailabilityService;
+    private final TeamMemberService teamMemberService;
+    private final UserRepository userRepository;
+    private final PlaceRepository placeRepository;
+    private final TeamRepository teamRepository;
+    private final OpenMatchFeedService openMatchFeedService;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private record Entry(UUID id, long sequence, UUID placeId, UUID teamId, UUID userId,
+                         LocalDateTime startTime, LocalDateTime endTime) {}
+
+    // Waitlist of one place. Guarded by its own monitor.
+    private static class PlaceWaitlist {
+        // slot start -> entries starting then, in join order
+        private final TreeMap<LocalDateTime, List<Entry>> byStart = new TreeMap<>();
+        // longest waitlisted slot, bounds how far back an overlapping entry can start
+        private Duration longest = Duration.ZERO;
+    }
+
+    private final Map<UUID, PlaceWaitlist> waitlists = new ConcurrentHashMap<>();
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Override
+    public WaitlistEntryResponseDTO join(BookingDTO dto, UUID userId) throws AppException {
+        if (dto.teamId() == null) {
+            throw new ValidationException(ErrorCode.INVALID_TEAM_ID);
+        }
+        if (dto.placeId() == null) {
+            throw new ValidationException(ErrorCode.INVALID_PLACE_ID);
+        }
+        if (dto.startTime() == null || dto.startTime().isBefore(LocalDateTime.now())) {
+            throw new ValidationException(ErrorCode.INVALID_BOOKING_START_TIME);
+        }
+        if (dto.endTime() == null || !dto.startTime().isBefore(dto.endTime())) {
+            throw new ValidationException(ErrorCode.INVALID_BOOKING_END_TIME);
+        }
+        if (!teamMemberService.isOrganizer(userId, dto.teamId())) {
+            throw new ForbiddenActionException(ErrorCode.FORBIDDEN);
+        }
+        if (!placeRepository.existsById(dto.placeId())) {
+            throw new NotFoundException(ErrorCode.PLACE_NOT_FOUND);
+        }
+        if (bookingAvailabilityService.isAvailable(dto.placeId(), dto.startTime(), dto.endTime())) {
+            throw new ValidationException(ErrorCode.WAITLIST_SLOT_AVAILABLE);
+        }
+
+        PlaceWaitlist waitlist = waitlists.computeIfAbsent(dto.placeId(), id -> new PlaceWaitlist());
+        synchronized (waitlist) {
+            List<Entry> sameSlot = waitlist.byStart.getOrDefault(dto.startTime(), List.of()).stream()
+                    .filter(entry -> entry.endTime().equals(dto.endTime()))
+                    .toList();
+
+            if (sameSlot.stream().anyMatch(entry -> entry.teamId().equals(dto.teamId()))) {
+                throw new AlreadyExistsException(ErrorCode.WAITLIST_ALREADY_JOINED);
+            }
+            if (sameSlot.size() >= MAX_ENTRIES_PER_SLOT) {
+                throw new ValidationException(ErrorCode.WAITLIST_FULL);
+            }
+
+            Entry entry = new Entry(UUID.randomUUID(), sequence.incrementAndGet(), dto.placeId(), dto.teamId(),
+                    userId, dto.startTime(), dto.endTime());
+            waitlist.byStart.computeIfAbsent(entry.startTime(), start -> new ArrayList<>()).add(entry);
+            entries.put(entry.id(), entry);
+
+            Duration length = Duration.between(dto.startTime(), dto.endTime());
+            if (length.compareTo(waitlist.longest) > 0) {
+                waitlist.longest = length;
+            }
+
+            return new WaitlistEntryResponseDTO(entry.id(), entry.placeId(), entry.teamId(),
+                    entry.startTime(), entry.endTime(), sameSlot.size() + 1);
+        }
+    }
+
+    @Override
+    public void leave(UUID entryId, UUID userId) throws AppException {
+        Entry entry = entries.get(entryId);
+        if (entry == null) {
+            throw new NotFoundException(ErrorCode.WAITLIST_ENTRY_NOT_FOUND);
+        }
+        if (!entry.userId().equals(userId) && !teamMemberService.isOrganizer(userId, entry.teamId())) {
+            throw new ForbiddenActionException(ErrorCode.FORBIDDEN);
+        }
+
+        PlaceWaitlist waitlist = waitlists.get(entry.placeId());
+        if (waitlist != null) {
+            synchronized (waitlist) {
+                remove(waitlist, entry);
+            }
+        }
+    }
+
+    /**
+     * Promote waiting teams into the freed interval [startTime, endTime) of a place, oldest
+     * entry first, for as long as their slots still fit. Returns the bookings created.
+     */
+    @Override
+    public List<BookingMatch> promote(UUID placeId, LocalDateTime startTime, LocalDateTime endTime) {
+        PlaceWaitlist waitlist = waitlists.get(placeId);
+        if (waitlist == null) {
+            return List.of();
+        }
+
+        List<BookingMatch> promoted = new ArrayList<>();
+        synchronized (waitlist) {
+            List<Entry> candidates = waitlist.byStart
+                    .subMap(startTime.minus(waitlist.longest), false, endTime, false)
+                    .values().stream()
+                    .flatMap(List::stream)
+                    .filter(entry -> entry.endTime().isAfter(startTime))
+                    .sorted(Comparator.comparingLong(Entry::sequence))
+                    .toList();
+
+            LocalDateTime now = LocalDateTime.now();
+            for (Entry entry : candidates) {
+                if (entry.startTime().isBefore(now)) {
+                    remove(waitlist, entry);
+                    continue;
+                }
+                if (!bookingAvailabilityService.isAvailable(placeId, entry.startTime(), entry.endTime())) {
+                    continue;
+                }
+
+                try {
+                    promoted.add(book(entry));
+                    remove(waitlist, entry);
+                } catch (AppException e) {
+                    // Taken again, or the team is now playing elsewhere: keep waiting
+                    if (e.getData() != null && (e.getData().code() == ErrorCode.TIME_SLOT_UNAVAILABLE.getCode()
+                            || e.getData().code() == ErrorCode.TEAM_TIME_CONFLICT.getCode())) {
+                        continue;
+                    }
+                    // The team, place or organizer role is gone, the entry can never be served
+                    log.warn("Dropping waitlist entry {} of team {}: {}", entry.id(), entry.teamId(), e.getMessage());
+                    remove(waitlist, entry);
+                }
+            }
+        }
+
+        for (BookingMatch match : promoted) {
+            log.info("Promoted team {} from the waitlist of place {} at {}",
+                    match.getTeam().getId(), placeId, match.getStartTime());
+            teamMemberService.realTimeNotify(match.getUser().getId());
+            messagingTemplate.convertAndSend("/topic/bookings", new BookingSlotUpdateMessage(
+                    placeId,
+                    match.getStartTime().toLocalDate().toString()
+            ));
+        }
+        return promoted;
+    }
+
+    /**
+     * Drop the entries whose slot has started; they can never be promoted. Promotion drops such
+     * entries only when a cancellation happens to reach them.
+     */
+    @Override
+    @Scheduled(initialDelayString = "${app.booking.waitlist-purge.interval:300000}",
+            fixedDelayString = "${app.booking.waitlist-purge.interval:300000}")
+    public int purgePastEntries() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = 0;
+        for (PlaceWaitlist waitlist : waitlists.values()) {
+            synchronized (waitlist) {
+                Map<LocalDateTime, List<Entry>> started = waitlist.byStart.headMap(now, false);
+                for (List<Entry> sameStart : started.values()) {
+                    sameStart.forEach(entry -> entries.remove(entry.id()));
+                    purged += sameStart.size();
+                }
+                started.clear();
+                if (waitlist.byStart.isEmpty()) {
+                    waitlist.longest = Duration.ZERO;
+                }
+            }
+        }
+
+        if (purged > 0) {
+            log.info("Purged {} waitlist entries for slots that already started", purged);
+        }
+        return purged;
+    }
+
+    private BookingMatch book(Entry entry) throws AppException {
+        if (!teamMemberService.isOrganizer(entry.userId(), entry.teamId())) {
+            throw new ForbiddenActionException(ErrorCode.FORBIDDEN);
+        }
+
+        BookingMatch match = new BookingMatch();
+        match.setPlace(placeRepository.findById(entry.placeId())
+                .orElseThrow(() -> new NotFoundException(ErrorCode.PLACE_NOT_FOUND)));
+        match.setUser(userRepository.findById(entry.userId())
+                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND)));
+        match.setTeam(teamRepository.findById(entry.teamId())
+                .orElseThrow(() -> new NotFoundException(ErrorCode.TEAM_NOT_FOUND)));
+        match.setStartTime(entry.startTime());
+        match.setEndTime(entry.endTime());
+        match.setStatus(MatchStatus.PENDING_PLAYERS);
+
+        BookingMatch saved = bookingAvailabilityService.reserve(match);
+        openMatchFeedService.matchListed(saved);
+        return saved;
+    }
+
+    private void remove(PlaceWaitlist waitlist, Entry entry) {
+        entries.remove(entry.id());
+        List<Entry> sameStart = waitlist.byStart.get(entry.startTime());
+        if (sameStart != null) {
+            sameStart.remove(entry);
+            if (sameStart.isEmpty()) {
+                waitlist.byStart.remove(entry.startTime());
+            }
+        }
+    }
+}
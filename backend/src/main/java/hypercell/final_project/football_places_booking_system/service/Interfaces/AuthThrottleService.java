@@ -0,0 +1,10 @@
+package hypercell.final_project.football_places_booking_system.service.Interfaces;
+
+import hypercell.final_project.football_places_booking_system.exception.AppException;
+
+public interface AuthThrottleService {
+    void check(String address, String account) throws AppException;
+    void checkRefresh(String address) throws AppException;
+    long getThrottledByAddress();
+    long getThrottledByAccount();
+}
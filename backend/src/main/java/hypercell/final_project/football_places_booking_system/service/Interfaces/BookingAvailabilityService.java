@@ -0,0 +1,28 @@
+package hypercell.final_project.football_places_booking_system.service.Interfaces;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import hypercell.final_project.football_places_booking_system.exception.AppException;
+import hypercell.final_project.football_places_booking_system.model.db.BookingMatch;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.SlotSuggestionDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.PlaceDTO;
+import hypercell.final_project.football_places_booking_system.model.enums.PlaceType;
+
+public interface BookingAvailabilityService {
+    boolean isAvailable(UUID placeId, LocalDateTime startTime, LocalDateTime endTime);
+    BookingMatch reserve(BookingMatch match) throws AppException;
+    List<BookingMatch> reserveAll(List<BookingMatch> matches) throws AppException;
+    boolean register(BookingMatch match);
+    void release(BookingMatch match);
+    boolean hold(UUID placeId, LocalDateTime startTime, LocalDateTime endTime, UUID holdId, UUID ownerId);
+    boolean releaseHold(UUID placeId, LocalDateTime startTime, LocalDateTime endTime, UUID holdId);
+    long[] getDailyBusySlots(UUID placeId, LocalDate date);
+    List<SlotSuggestionDTO> suggestAlternatives(UUID placeId, LocalDateTime startTime, LocalDateTime endTime, int limit);
+    List<PlaceDTO> findAvailablePlaces(PlaceType placeType, LocalDateTime startTime, LocalDateTime endTime,
+                                       String name, String location);
+    void putPlace(PlaceDTO place);
+    void removePlace(UUID placeId);
+}
@@ -0,0 +1,8 @@
+package hypercell.final_project.football_places_booking_system.service.Interfaces;
+
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingExpiryStatsDTO;
+
+public interface BookingExpiryService {
+    int expireStaleBookings();
+    BookingExpiryStatsDTO getStats();
+}
@@ -3,18 +3,28 @@ package hypercell.final_project.football_places_booking_system.service.Interface
 import hypercell.final_project.football_places_booking_system.exception.AppException;
 import hypercell.final_project.football_places_booking_system.model.db.BookingMatch;
 import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingPageResponseDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingSeriesDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingSeriesResponseDTO;
+import hypercell.final_project.football_places_booking_system.model.enums.MatchStatus;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 public interface BookingMatchService {
     public BookingMatch createBookingMatch(BookingDTO dto, UUID userId) throws AppException;
+    public BookingSeriesResponseDTO createBookingSeries(BookingSeriesDTO dto, UUID userId) throws AppException;
     public void cancelBooking(UUID matchId, UUID userId) throws AppException;
     public BookingMatch getById(UUID id) throws AppException;
     public List<BookingMatch> getByUser(UUID userId) throws AppException;
     public List<BookingMatch> getByTeam(UUID teamId) throws AppException;
+    public List<BookingMatch> getByTeam(UUID teamId, LocalDateTime from, LocalDateTime to) throws AppException;
     public List<BookingMatch> getByPlace(UUID placeId) throws AppException;
-    public List<BookingMatch> getAll();
+    public List<BookingMatch> getByPlace(UUID placeId, LocalDateTime from, LocalDateTime to) throws AppException;
+    public BookingPageResponseDTO getPage(MatchStatus status, UUID placeId, UUID teamId, LocalDateTime from,
+                                          LocalDateTime to, String cursor, int size) throws AppException;
 //    public List<BookingMatch> getMyMatchesAsPlayer(UUID userId) throws AppException;
-    public List<BookingMatch> getMyMatchesAsOrganizer(UUID userId) throws AppException;
+    public List<BookingMatch> getMyMatchesAsOrganizer(UUID userId, boolean includePast, int page, int size)
+            throws AppException;
 }
@@ -3,7 +3,11 @@ package hypercell.final_project.football_places_booking_system.service.Interface
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import io.jsonwebtoken.Claims;
+
 public interface CustomUserDetailsService {
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException;
+    public UserDetails loadPrincipal(Claims claims) throws UsernameNotFoundException;
+    public void evict(String email);
 
 }
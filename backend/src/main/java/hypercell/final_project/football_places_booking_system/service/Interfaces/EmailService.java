@@ -1,5 +1,6 @@
 package hypercell.final_project.football_places_booking_system.service.Interfaces;
 
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -30,6 +31,9 @@ public interface EmailService {
     @Async("emailTaskExecutor")
     CompletableFuture<Void> sendInvitationEmail(String email, MatchParticipant matchParticipant);
 
+    @Async("emailTaskExecutor")
+    CompletableFuture<Void> sendInvitationEmails(List<MatchParticipant> matchParticipants);
+
     @Async("emailTaskExecutor")
     CompletableFuture<Void> sendResponseToMatchParticipantInvitation(MatchParticipant matchParticipant, ParticipantStatus response);
 
@@ -2,6 +2,8 @@ package hypercell.final_project.football_places_booking_system.service.Interface
 
 import hypercell.final_project.football_places_booking_system.exception.AppException;
 import hypercell.final_project.football_places_booking_system.model.db.MatchParticipant;
+import hypercell.final_project.football_places_booking_system.model.dto.MatchPartDTOs.BulkInvitationRequest;
+import hypercell.final_project.football_places_booking_system.model.dto.MatchPartDTOs.BulkInvitationResponseDTO;
 import hypercell.final_project.football_places_booking_system.model.dto.TeamDTOS.InvitationRequest;
 import hypercell.final_project.football_places_booking_system.model.enums.ParticipantStatus;
 
@@ -12,6 +14,10 @@ public interface MatchParticipantService {
 
     MatchParticipant inviteParticipant(InvitationRequest dto, UUID bookingMatchId) throws AppException;
 
+    BulkInvitationResponseDTO inviteParticipants(BulkInvitationRequest dto, UUID bookingMatchId) throws AppException;
+
+    BulkInvitationResponseDTO inviteRoster(UUID bookingMatchId) throws AppException;
+
     MatchParticipant respondToInvitation(UUID participantId, ParticipantStatus status) throws AppException;
 
     MatchParticipant joinMatchAsOrganizer(UUID bookingMatchId, UUID organizerId) throws AppException;
@@ -0,0 +1,20 @@
+package hypercell.final_project.football_places_booking_system.service.Interfaces;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import hypercell.final_project.football_places_booking_system.exception.AppException;
+import hypercell.final_project.football_places_booking_system.model.db.BookingMatch;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.OpenMatchDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.MatchPartDTOs.MatchPageResponseDTO;
+import hypercell.final_project.football_places_booking_system.model.enums.PlaceType;
+
+public interface OpenMatchFeedService {
+    MatchPageResponseDTO<OpenMatchDTO> getFeed(PlaceType placeType, LocalDate date, UUID placeId,
+                                               String cursor, int size) throws AppException;
+    void matchListed(BookingMatch match);
+    void matchDelisted(UUID matchId);
+    void invitationsSent(UUID matchId, int count);
+    void invitationAnswered(UUID matchId, boolean accepted);
+    void seatTaken(UUID matchId);
+}
@@ -0,0 +1,15 @@
+package hypercell.final_project.football_places_booking_system.service.Interfaces;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import hypercell.final_project.football_places_booking_system.exception.AppException;
+import hypercell.final_project.football_places_booking_system.model.db.BookingMatch;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingIntervalDTO;
+
+public interface PlayerScheduleService {
+    void claim(UUID userId, BookingMatch match) throws AppException;
+    void matchChanged(UUID matchId);
+    List<BookingIntervalDTO> getBusyTimes(UUID userId, LocalDateTime from, LocalDateTime to) throws AppException;
+}
@@ -0,0 +1,14 @@
+package hypercell.final_project.football_places_booking_system.service.Interfaces;
+
+import java.util.UUID;
+
+import hypercell.final_project.football_places_booking_system.exception.AppException;
+import hypercell.final_project.football_places_booking_system.model.db.User;
+import hypercell.final_project.football_places_booking_system.model.dto.AuthDTO;
+
+public interface RefreshTokenService {
+    AuthDTO issueTokens(User user);
+    AuthDTO refresh(String refreshToken) throws AppException;
+    void logout(String refreshToken, String accessToken);
+    void revokeAll(UUID userId);
+}
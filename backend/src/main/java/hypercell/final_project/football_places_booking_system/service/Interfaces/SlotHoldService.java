@@ -0,0 +1,14 @@
+package hypercell.final_project.football_places_booking_system.service.Interfaces;
+
+import java.util.UUID;
+
+import hypercell.final_project.football_places_booking_system.exception.AppException;
+import hypercell.final_project.football_places_booking_system.model.db.BookingMatch;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.SlotHoldDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.SlotHoldResponseDTO;
+
+public interface SlotHoldService {
+    SlotHoldResponseDTO createHold(SlotHoldDTO dto, UUID userId) throws AppException;
+    void releaseHold(UUID holdId, UUID userId) throws AppException;
+    void forgetHoldsOf(BookingMatch match);
+}
@@ -0,0 +1,12 @@
+package hypercell.final_project.football_places_booking_system.service.Interfaces;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import hypercell.final_project.football_places_booking_system.model.enums.TeamRole;
+
+public interface TeamRoleService {
+    Optional<TeamRole> findRole(UUID userId, UUID teamId);
+    void memberChanged(UUID userId, UUID teamId);
+    void teamChanged(UUID teamId);
+}
@@ -0,0 +1,11 @@
+package hypercell.final_project.football_places_booking_system.service.Interfaces;
+
+import java.util.UUID;
+
+import io.jsonwebtoken.Claims;
+
+public interface TokenRevocationService {
+    boolean isRevoked(Claims claims);
+    void revokeToken(Claims claims);
+    void revokeUser(UUID userId);
+}
@@ -0,0 +1,17 @@
+package hypercell.final_project.football_places_booking_system.service.Interfaces;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import hypercell.final_project.football_places_booking_system.exception.AppException;
+import hypercell.final_project.football_places_booking_system.model.db.BookingMatch;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.WaitlistEntryResponseDTO;
+
+public interface WaitlistService {
+    WaitlistEntryResponseDTO join(BookingDTO dto, UUID userId) throws AppException;
+    void leave(UUID entryId, UUID userId) throws AppException;
+    List<BookingMatch> promote(UUID placeId, LocalDateTime startTime, LocalDateTime endTime);
+    int purgePastEntries();
+}
@@ -0,0 +1,165 @@
+package hypercell.final_project.football_places_booking_system.util;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hashed timer wheel: a ring of buckets advanced by one worker thread every tick.
+ * A timeout lands in the bucket of its deadline tick and carries the number of full
+ * rotations left, so scheduling and cancelling are O(1) and one thread expires any number
+ * of timeouts, instead of one scheduled task per timeout.
+ *
+ * Expiry is accurate to one tick. The expiry callback runs on the worker thread and must
+ * not block.
+ */
+@Slf4j
+public class HashedTimerWheel<T> implements AutoCloseable {
+
+    public final class Timeout {
+        private final T value;
+        private final long deadlineNanos;
+        private long remainingRounds;
+        // set once, by whichever of cancel() and expiry gets there first
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Timeout(T value, long deadlineNanos) {
+            this.value = value;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public T value() {
+            return value;
+        }
+
+        // Returns false if the timeout already expired. A cancelled timeout is dropped from
+        // its bucket the next time the wheel passes it.
+        public boolean cancel() {
+            if (!done.compareAndSet(false, true)) {
+                return false;
+            }
+            pendingCount.decrementAndGet();
+            return true;
+        }
+    }
+
+    private final long tickNanos;
+    private final ArrayDeque<Timeout>[] buckets;
+    private final int mask;
+    private final Consumer<T> onExpiry;
+
+    // timeouts scheduled since the last tick, moved into their buckets by the worker
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private final long startNanos = System.nanoTime();
+    private final Thread worker;
+    private volatile boolean running = true;
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(String name, Duration tickDuration, int wheelSize, Consumer<T> onExpiry) {
+        if (tickDuration.isZero() || tickDuration.isNegative() || wheelSize < 1) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+        }
+
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        if (size < 1) {
+            size = 1;
+        }
+        this.tickNanos = tickDuration.toNanos();
+        this.buckets = new ArrayDeque[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.mask = size - 1;
+        this.onExpiry = onExpiry;
+
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public Timeout schedule(T value, Duration delay) {
+        Timeout timeout = new Timeout(value, System.nanoTime() - startNanos + delay.toNanos());
+        pendingCount.incrementAndGet();
+        incoming.add(timeout);
+        return timeout;
+    }
+
+    // Number of scheduled timeouts that have neither expired nor been cancelled.
+    public int pending() {
+        return pendingCount.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long sleepNanos = (tick + 1) * tickNanos - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                }
+                continue;
+            }
+
+            transferIncoming();
+            expire(buckets[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferIncoming() {
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            if (timeout.done.get()) {
+                continue;
+            }
+
+            // Deadlines already passed go into the current bucket and fire on this tick
+            long deadlineTick = Math.max(timeout.deadlineNanos / tickNanos, tick);
+            timeout.remainingRounds = (deadlineTick - tick) / buckets.length;
+            buckets[(int) (deadlineTick & mask)].add(timeout);
+        }
+    }
+
+    private void expire(ArrayDeque<Timeout> bucket) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.done.get()) {
+                iterator.remove();
+            } else if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+            } else {
+                iterator.remove();
+                if (!timeout.done.compareAndSet(false, true)) {
+                    continue;
+                }
+                pendingCount.decrementAndGet();
+                try {
+                    onExpiry.accept(timeout.value);
+                } catch (RuntimeException e) {
+                    log.error("Timer wheel expiry callback failed", e);
+                }
+            }
+        }
+    }
+}
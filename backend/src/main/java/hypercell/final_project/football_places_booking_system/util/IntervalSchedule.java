@@ -0,0 +1,67 @@
+package hypercell.final_project.football_places_booking_system.util;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Sorted map of non-overlapping, half-open [start, end) intervals keyed by start time.
+ * Because the intervals never overlap, only the interval starting at or before a given
+ * instant can reach into it, so overlap checks are a floor lookup plus a walk over the
+ * intervals that actually overlap (O(log n + k)).
+ */
+public class IntervalSchedule<T> {
+
+    public record Interval<T>(LocalDateTime start, LocalDateTime end, T value) {}
+
+    private final TreeMap<LocalDateTime, Interval<T>> intervals = new TreeMap<>();
+
+    public synchronized boolean isFree(LocalDateTime start, LocalDateTime end) {
+        return overlapping(start, end).isEmpty();
+    }
+
+    // Returns every stored interval that overlaps [from, to), ordered by start time.
+    public synchronized List<Interval<T>> overlapping(LocalDateTime from, LocalDateTime to) {
+        List<Interval<T>> result = new ArrayList<>();
+        if (!from.isBefore(to)) {
+            return result;
+        }
+
+        LocalDateTime first = intervals.floorKey(from);
+        for (Interval<T> interval : intervals.subMap(first != null ? first : from, true, to, false).values()) {
+            if (interval.end().isAfter(from)) {
+                result.add(interval);
+            }
+        }
+        return result;
+    }
+
+    // Adds the interval only if it does not overlap an existing one.
+    public synchronized boolean add(LocalDateTime start, LocalDateTime end, T value) {
+        if (!start.isBefore(end) || !isFree(start, end)) {
+            return false;
+        }
+        intervals.put(start, new Interval<>(start, end, value));
+        return true;
+    }
+
+    // Removes the interval starting at the given time, but only if its value matches.
+    public synchronized boolean remove(LocalDateTime start, Predicate<T> matcher) {
+        Interval<T> interval = intervals.get(start);
+        if (interval == null || !matcher.test(interval.value())) {
+            return false;
+        }
+        intervals.remove(start);
+        return true;
+    }
+
+    public synchronized int size() {
+        return intervals.size();
+    }
+
+    public synchronized List<Interval<T>> snapshot() {
+        return new ArrayList<>(intervals.values());
+    }
+}
@@ -0,0 +1,35 @@
+package hypercell.final_project.football_places_booking_system.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+import hypercell.final_project.football_places_booking_system.exception.ValidationException;
+import hypercell.final_project.football_places_booking_system.model.enums.ErrorCode;
+
+/**
+ * Position of a keyset page over rows ordered by (startTime, id): the last row of the
+ * previous page. Clients get it as an opaque base64url string and pass it back unchanged.
+ */
+public record KeysetCursor(LocalDateTime startTime, UUID id) {
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((startTime + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns null for a missing cursor, i.e. the first page
+    public static KeysetCursor decode(String cursor) throws ValidationException {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            return new KeysetCursor(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new ValidationException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package hypercell.final_project.football_places_booking_system.util;
+
+import java.time.Duration;
+
+/**
+ * Token bucket holding up to capacity tokens and refilling capacity tokens every refill
+ * period, continuously. Callers pass the current System.nanoTime reading. Thread-safe.
+ */
+public final class TokenBucket {
+
+    private final int capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long refilledAtNanos;
+
+    public TokenBucket(int capacity, Duration refillPeriod, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = (double) capacity / refillPeriod.toNanos();
+        this.tokens = capacity;
+        this.refilledAtNanos = nowNanos;
+    }
+
+    public synchronized boolean tryTake(long nowNanos) {
+        refill(nowNanos);
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - refilledAtNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            refilledAtNanos = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package hypercell.final_project.football_places_booking_system.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import hypercell.final_project.football_places_booking_system.model.db.BookingMatch;
+import hypercell.final_project.football_places_booking_system.model.db.Place;
+import hypercell.final_project.football_places_booking_system.model.db.Team;
+import hypercell.final_project.football_places_booking_system.model.db.TeamMember;
+import hypercell.final_project.football_places_booking_system.model.db.User;
+import hypercell.final_project.football_places_booking_system.model.enums.MatchStatus;
+import hypercell.final_project.football_places_booking_system.model.enums.PlaceType;
+import hypercell.final_project.football_places_booking_system.model.enums.TeamRole;
+import hypercell.final_project.football_places_booking_system.model.enums.TeamStatus;
+
+/**
+ * Compares the old in-memory organizer filtering with the single findByTeamMember query over
+ * 100k bookings. Runs against an in-memory H2 database and only when asked for:
+ *
+ *   mvn test -Dtest=OrganizerMatchesBenchmarkTest -Dbenchmark=true
+ */
+@DataJpaTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=500",
+        "spring.jpa.show-sql=false"
+})
+class OrganizerMatchesBenchmarkTest {
+
+    private static final int BOOKINGS = 100_000;
+    private static final int TEAMS = 1_000;
+    private static final int ORGANIZED_TEAMS = 5;
+    private static final int ROUNDS = 5;
+
+    @Autowired private BookingMatchRepository bookingMatchRepository;
+    @Autowired private TeamMemberRepository teamMemberRepository;
+    @Autowired private TeamRepository teamRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PlaceRepository placeRepository;
+    @Autowired private TestEntityManager entityManager;
+
+    private User organizer;
+
+    @BeforeEach
+    void seed() {
+        organizer = userRepository.save(User.builder().username("organizer").email("organizer@test.com").build());
+        User booker = userRepository.save(User.builder().username("booker").email("booker@test.com").build());
+        Place place = placeRepository.save(Place.builder().name("Pitch").placeType(PlaceType.FIVE).build());
+
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < TEAMS; i++) {
+            teams.add(Team.builder().name("team-" + i).build());
+        }
+        teams = teamRepository.saveAll(teams);
+
+        List<TeamMember> members = new ArrayList<>();
+        for (int i = 0; i < ORGANIZED_TEAMS; i++) {
+            members.add(TeamMember.builder().user(organizer).team(teams.get(i))
+                    .role(TeamRole.ORGANIZER).status(TeamStatus.APPROVED).build());
+        }
+        teamMemberRepository.saveAll(members);
+
+        LocalDateTime start = LocalDateTime.now().minusDays(BOOKINGS / 48);
+        List<BookingMatch> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime slot = start.plusMinutes(30L * i);
+            bookings.add(BookingMatch.builder().place(place).user(booker).team(teams.get(i % TEAMS))
+                    .startTime(slot).endTime(slot.plusMinutes(30)).status(MatchStatus.CONFIRMED)
+                    .participants(new ArrayList<>()).build());
+            if (bookings.size() == 5_000) {
+                bookingMatchRepository.saveAll(bookings);
+                bookings.clear();
+            }
+        }
+        bookingMatchRepository.saveAll(bookings);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void organizerMatches() {
+        UUID userId = organizer.getId();
+        int expected = BOOKINGS / TEAMS * ORGANIZED_TEAMS;
+
+        long inMemory = time(() -> {
+            List<UUID> organizerTeams = teamMemberRepository.findByUserId(userId).stream()
+                    .filter(tm -> tm.getRole() == TeamRole.ORGANIZER && tm.getStatus() == TeamStatus.APPROVED)
+                    .map(tm -> tm.getTeam().getId())
+                    .toList();
+            List<BookingMatch> result = findAllWithDetails().stream()
+                    .filter(match -> organizerTeams.contains(match.getTeam().getId()))
+                    .toList();
+            assertEquals(expected, result.size());
+        });
+
+        long query = time(() -> {
+            List<BookingMatch> result = bookingMatchRepository.findByTeamMember(userId, TeamRole.ORGANIZER,
+                    TeamStatus.APPROVED, LocalDateTime.of(1970, 1, 1, 0, 0), PageRequest.of(0, expected));
+            assertEquals(expected, result.size());
+        });
+
+        System.out.printf("Organizer matches over %d bookings: in-memory filter %d ms, findByTeamMember %d ms%n",
+                BOOKINGS, inMemory, query);
+    }
+
+    // The full listing the old code filtered: every booking with its team, place and user in one query
+    private List<BookingMatch> findAllWithDetails() {
+        return entityManager.getEntityManager().createQuery("SELECT bm FROM BookingMatch bm " +
+                "LEFT JOIN FETCH bm.team " +
+                "LEFT JOIN FETCH bm.place " +
+                "LEFT JOIN FETCH bm.user", BookingMatch.class).getResultList();
+    }
+
+    // Average wall time of a round in milliseconds, after one warm-up round, each with an empty persistence context
+    private long time(Runnable round) {
+        round.run();
+        entityManager.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            round.run();
+            entityManager.clear();
+        }
+        return (System.nanoTime() - start) / ROUNDS / 1_000_000;
+    }
+}
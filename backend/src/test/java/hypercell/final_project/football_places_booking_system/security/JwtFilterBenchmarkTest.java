@@ -0,0 +1,99 @@
+package hypercell.final_project.football_places_booking_system.security;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import hypercell.final_project.football_places_booking_system.model.db.User;
+import hypercell.final_project.football_places_booking_system.model.enums.UserRole;
+import hypercell.final_project.football_places_booking_system.service.Impl.CustomUserDetailsServiceImpl;
+import hypercell.final_project.football_places_booking_system.service.Impl.JwtServiceImpl;
+import hypercell.final_project.football_places_booking_system.service.Impl.TokenRevocationServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.FilterChain;
+
+/**
+ * Times JwtFilter over many requests carrying the same token, once with the signature verified
+ * on every claims lookup, as before the verified-claims cache, and once with the cache. The
+ * user lookup and the revocation check are mocked, so only the token handling is measured.
+ * Runs only when asked for:
+ *
+ *   mvn test -Dtest=JwtFilterBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class JwtFilterBenchmarkTest {
+
+    private static final String SECRET = "tzyUDpPD0UdhgKyr0oTRNOL1hGajLHikkatdo29yrGvqfvLm10FcFEvNqT0PNEw1x/MyHN2GJFemFuzoSsRt/w==";
+    private static final int REQUESTS = 20_000;
+    private static final int ROUNDS = 5;
+
+    private final User user = User.builder().id(UUID.randomUUID()).email("player@example.com").role(UserRole.USER).build();
+
+    private CustomUserDetailsServiceImpl userDetailsService;
+    private TokenRevocationServiceImpl tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = mock(CustomUserDetailsServiceImpl.class);
+        when(userDetailsService.loadPrincipal(any())).thenReturn(user);
+        tokenRevocationService = mock(TokenRevocationServiceImpl.class);
+        when(tokenRevocationService.isRevoked(any())).thenReturn(false);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void filterWithAndWithoutVerifiedClaimsCache() throws Exception {
+        // Verifies the signature on every lookup, like extractAllClaims did before the cache
+        JwtServiceImpl verifyEveryCall = new JwtServiceImpl(SECRET, 3_600_000) {
+            @Override
+            public Claims extractAllClaims(String token) {
+                return Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token).getBody();
+            }
+        };
+        JwtServiceImpl cached = new JwtServiceImpl(SECRET, 3_600_000);
+        String token = cached.generateToken(user);
+
+        double uncached = time(new JwtFilter(verifyEveryCall, userDetailsService, tokenRevocationService), token);
+        double withCache = time(new JwtFilter(cached, userDetailsService, tokenRevocationService), token);
+
+        System.out.printf("JwtFilter over %d requests: verify every call %.1f us, cached claims %.1f us per request%n",
+                REQUESTS, uncached, withCache);
+    }
+
+    // Average wall time of one filtered request in microseconds, over ROUNDS rounds after one warm-up round
+    private double time(JwtFilter filter, String token) throws Exception {
+        runRound(filter, token);
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            runRound(filter, token);
+        }
+        return (System.nanoTime() - start) / 1_000.0 / ROUNDS / REQUESTS;
+    }
+
+    private void runRound(JwtFilter filter, String token) throws Exception {
+        FilterChain chain = (request, response) ->
+                assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        for (int i = 0; i < REQUESTS; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/booking-matches/all");
+            request.addHeader("Authorization", "Bearer " + token);
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
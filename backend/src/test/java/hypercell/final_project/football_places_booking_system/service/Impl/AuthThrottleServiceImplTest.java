@@ -0,0 +1,58 @@
+package hypercell.final_project.football_places_booking_system.service.Impl;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import hypercell.final_project.football_places_booking_system.exception.TooManyRequestsException;
+
+class AuthThrottleServiceImplTest {
+
+    @Test
+    void oneAccountIsLimitedAcrossAddresses() {
+        AuthThrottleServiceImpl throttle = new AuthThrottleServiceImpl(20, 3, 100);
+
+        for (int i = 0; i < 3; i++) {
+            String address = "10.0.0." + i;
+            assertDoesNotThrow(() -> throttle.check(address, "Player@Example.com"));
+        }
+        assertThrows(TooManyRequestsException.class, () -> throttle.check("10.0.0.9", "player@example.com"));
+        assertDoesNotThrow(() -> throttle.check("10.0.0.9", "other@example.com"));
+        assertEquals(1, throttle.getThrottledByAccount());
+    }
+
+    @Test
+    void oneAddressIsLimitedAcrossAccountsButKeepsItsRefreshBudget() {
+        AuthThrottleServiceImpl throttle = new AuthThrottleServiceImpl(2, 5, 100);
+
+        assertDoesNotThrow(() -> throttle.check("10.0.0.1", "a@example.com"));
+        assertDoesNotThrow(() -> throttle.check("10.0.0.1", "b@example.com"));
+        assertThrows(TooManyRequestsException.class, () -> throttle.check("10.0.0.1", "c@example.com"));
+        assertDoesNotThrow(() -> throttle.check("10.0.0.2", "c@example.com"));
+        assertEquals(1, throttle.getThrottledByAddress());
+
+        for (int i = 0; i < 100; i++) {
+            assertDoesNotThrow(() -> throttle.checkRefresh("10.0.0.1"));
+        }
+        assertThrows(TooManyRequestsException.class, () -> throttle.checkRefresh("10.0.0.1"));
+    }
+
+    @Test
+    void sprayingOtherAccountsDoesNotResetTheTargetedOne() {
+        AuthThrottleServiceImpl throttle = new AuthThrottleServiceImpl(Integer.MAX_VALUE, 3, 100);
+        for (int i = 0; i < 3; i++) {
+            assertDoesNotThrow(() -> throttle.check(null, "target@example.com"));
+        }
+
+        // more distinct accounts than the map holds, with the attack on the target going on meanwhile
+        for (int i = 0; i < 150_000; i++) {
+            int n = i;
+            assertDoesNotThrow(() -> throttle.check(null, "spray" + n + "@example.com"));
+            if (i % 1_000 == 0) {
+                assertThrows(TooManyRequestsException.class, () -> throttle.check(null, "target@example.com"));
+            }
+        }
+    }
+}
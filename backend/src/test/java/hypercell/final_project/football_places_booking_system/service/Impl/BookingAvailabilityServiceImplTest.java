@@ -0,0 +1,259 @@
+package hypercell.final_project.football_places_booking_system.service.Impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import hypercell.final_project.football_places_booking_system.exception.ValidationException;
+import hypercell.final_project.football_places_booking_system.model.db.BookingMatch;
+import hypercell.final_project.football_places_booking_system.model.db.Place;
+import hypercell.final_project.football_places_booking_system.model.db.Team;
+import hypercell.final_project.football_places_booking_system.model.db.User;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.SlotSuggestionDTO;
+import hypercell.final_project.football_places_booking_system.model.enums.ErrorCode;
+import hypercell.final_project.football_places_booking_system.model.enums.MatchStatus;
+import hypercell.final_project.football_places_booking_system.model.enums.PlaceType;
+import hypercell.final_project.football_places_booking_system.repository.BookingMatchRepository;
+import hypercell.final_project.football_places_booking_system.repository.PlaceRepository;
+
+class BookingAvailabilityServiceImplTest {
+
+    private static final int ATTEMPTS = 300;
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 5, 10, 20, 0);
+
+    private BookingMatchRepository bookingMatchRepository;
+    private PlaceRepository placeRepository;
+    private BookingAvailabilityServiceImpl availabilityService;
+    private Place place;
+
+    @BeforeEach
+    void setUp() {
+        bookingMatchRepository = mock(BookingMatchRepository.class);
+        when(bookingMatchRepository.findIntervalsByPlaceIdInWindow(any(), eq(MatchStatus.CANCELLED), any(), any()))
+                .thenReturn(List.of());
+        when(bookingMatchRepository.save(any(BookingMatch.class))).thenAnswer(invocation -> {
+            BookingMatch match = invocation.getArgument(0);
+            Thread.sleep(1); // widen the window between the check and the insert
+            match.setId(UUID.randomUUID());
+            return match;
+        });
+
+        when(bookingMatchRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<BookingMatch> matches = invocation.getArgument(0);
+            matches.forEach(match -> match.setId(UUID.randomUUID()));
+            return matches;
+        });
+
+        placeRepository = mock(PlaceRepository.class);
+        availabilityService = new BookingAvailabilityServiceImpl(bookingMatchRepository, placeRepository);
+        place = Place.builder().id(UUID.randomUUID()).placeType(PlaceType.FIVE).build();
+    }
+
+    @Test
+    void onlyOneOfManyConcurrentOverlappingReservationsWins() throws Exception {
+        AtomicInteger won = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(i -> {
+            // every attempt overlaps the 20:30 - 21:00 window
+            LocalDateTime start = BASE.plusMinutes(i % 30);
+            reserve(start, start.plusMinutes(60), won, rejected);
+        });
+
+        assertEquals(1, won.get());
+        assertEquals(ATTEMPTS - 1, rejected.get());
+    }
+
+    @Test
+    void concurrentDisjointReservationsAllWin() throws Exception {
+        AtomicInteger won = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(i -> {
+            LocalDateTime start = BASE.plusHours(i);
+            reserve(start, start.plusHours(1), won, rejected);
+        });
+
+        assertEquals(ATTEMPTS, won.get());
+        assertEquals(0, rejected.get());
+    }
+
+    @Test
+    void slotRejectedByTheDatabaseIsReportedUnavailableAndStaysFree() {
+        // another instance inserted an overlapping booking, so the exclusion constraint rejects ours
+        when(bookingMatchRepository.save(any(BookingMatch.class)))
+                .thenThrow(new DataIntegrityViolationException("ex_booking_match_place_time"));
+
+        ValidationException e = assertThrows(ValidationException.class,
+                () -> availabilityService.reserve(match(BASE, BASE.plusHours(1))));
+
+        assertEquals(ErrorCode.TIME_SLOT_UNAVAILABLE.getCode(), e.getData().code());
+        assertTrue(availabilityService.isAvailable(place.getId(), BASE, BASE.plusHours(1)));
+    }
+
+    @Test
+    void seriesRejectedByTheDatabaseIsReportedUnavailableAndStaysFree() {
+        when(bookingMatchRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("ex_booking_match_place_time"));
+
+        ValidationException e = assertThrows(ValidationException.class, () -> availabilityService.reserveAll(List.of(
+                match(BASE, BASE.plusHours(1)),
+                match(BASE.plusWeeks(1), BASE.plusWeeks(1).plusHours(1))
+        )));
+
+        assertEquals(ErrorCode.TIME_SLOT_UNAVAILABLE.getCode(), e.getData().code());
+        assertTrue(availabilityService.isAvailable(place.getId(), BASE, BASE.plusHours(1)));
+        assertTrue(availabilityService.isAvailable(place.getId(), BASE.plusWeeks(1), BASE.plusWeeks(1).plusHours(1)));
+    }
+
+    @Test
+    void reserveAllSkipsOccupiedAndSelfOverlappingOccurrences() throws Exception {
+        availabilityService.reserve(match(BASE.plusWeeks(1), BASE.plusWeeks(1).plusHours(1)));
+
+        List<BookingMatch> result = availabilityService.reserveAll(List.of(
+                match(BASE, BASE.plusHours(1)),
+                match(BASE.plusWeeks(1), BASE.plusWeeks(1).plusHours(1)),
+                match(BASE.plusWeeks(2), BASE.plusWeeks(2).plusHours(1)),
+                match(BASE.plusWeeks(2).plusMinutes(30), BASE.plusWeeks(2).plusHours(2))
+        ));
+
+        assertNotNull(result.get(0));
+        assertNull(result.get(1));
+        assertNotNull(result.get(2));
+        assertNull(result.get(3));
+        assertFalse(availabilityService.isAvailable(place.getId(), BASE, BASE.plusHours(1)));
+    }
+
+    @Test
+    void heldSlotIsBusyForOthersButCanBeBookedByItsHolder() throws Exception {
+        User holder = User.builder().id(UUID.randomUUID()).build();
+        User other = User.builder().id(UUID.randomUUID()).build();
+        UUID holdId = UUID.randomUUID();
+
+        assertTrue(availabilityService.hold(place.getId(), BASE, BASE.plusHours(1), holdId, holder.getId()));
+        assertFalse(availabilityService.isAvailable(place.getId(), BASE, BASE.plusHours(1)));
+
+        BookingMatch othersMatch = match(BASE, BASE.plusHours(1));
+        othersMatch.setUser(other);
+        assertThrows(ValidationException.class, () -> availabilityService.reserve(othersMatch));
+
+        BookingMatch holdersMatch = match(BASE, BASE.plusHours(1));
+        holdersMatch.setUser(holder);
+        availabilityService.reserve(holdersMatch);
+
+        // the hold was taken over by the booking, so releasing it no longer frees the slot
+        assertFalse(availabilityService.releaseHold(place.getId(), BASE, BASE.plusHours(1), holdId));
+        assertFalse(availabilityService.isAvailable(place.getId(), BASE, BASE.plusHours(1)));
+    }
+
+    @Test
+    void teamCannotBeBookedOnTwoPlacesAtOnce() throws Exception {
+        Team team = Team.builder().id(UUID.randomUUID()).build();
+        Place otherPlace = Place.builder().id(UUID.randomUUID()).placeType(PlaceType.FIVE).build();
+
+        BookingMatch first = match(BASE, BASE.plusHours(1));
+        first.setTeam(team);
+        availabilityService.reserve(first);
+
+        BookingMatch elsewhere = match(BASE.plusMinutes(30), BASE.plusMinutes(90));
+        elsewhere.setPlace(otherPlace);
+        elsewhere.setTeam(team);
+        ValidationException e = assertThrows(ValidationException.class, () -> availabilityService.reserve(elsewhere));
+        assertEquals(ErrorCode.TEAM_TIME_CONFLICT.getCode(), e.getData().code());
+
+        // the other place is still free, and the team can play there once the first booking is released
+        assertTrue(availabilityService.isAvailable(otherPlace.getId(), BASE, BASE.plusHours(2)));
+        availabilityService.release(first);
+        availabilityService.reserve(elsewhere);
+    }
+
+    @Test
+    void suggestsNearestFreeWindowsOnSamePlaceAndSameTypePlaces() throws Exception {
+        Place sameType = Place.builder().id(UUID.randomUUID()).name("B").placeType(PlaceType.FIVE).build();
+        Place otherType = Place.builder().id(UUID.randomUUID()).name("C").placeType(PlaceType.ELEVEN).build();
+        place.setName("A");
+        when(placeRepository.findAll()).thenReturn(List.of(place, sameType, otherType));
+
+        // 20:00 - 21:00 is taken on the requested place, 19:00 - 21:30 on the other five-a-side place
+        availabilityService.reserve(match(BASE, BASE.plusHours(1)));
+        BookingMatch busyElsewhere = match(BASE.minusHours(1), BASE.plusMinutes(90));
+        busyElsewhere.setPlace(sameType);
+        availabilityService.reserve(busyElsewhere);
+
+        List<SlotSuggestionDTO> suggestions = availabilityService.suggestAlternatives(place.getId(),
+                BASE.plusMinutes(10), BASE.plusMinutes(70), 3);
+
+        // 21:00 is 50 minutes from the requested 20:10, 19:00 is 70 minutes away
+        assertEquals(List.of(
+                new SlotSuggestionDTO(place.getId(), "A", BASE.plusHours(1), BASE.plusHours(2)),
+                new SlotSuggestionDTO(place.getId(), "A", BASE.minusMinutes(60), BASE),
+                new SlotSuggestionDTO(sameType.getId(), "B", BASE.plusMinutes(90), BASE.plusMinutes(150))
+        ), suggestions);
+    }
+
+    private BookingMatch match(LocalDateTime start, LocalDateTime end) {
+        return BookingMatch.builder()
+                .place(place)
+                .startTime(start)
+                .endTime(end)
+                .status(MatchStatus.PENDING_PLAYERS)
+                .build();
+    }
+
+    private void reserve(LocalDateTime start, LocalDateTime end, AtomicInteger won, AtomicInteger rejected) {
+        try {
+            availabilityService.reserve(match(start, end));
+            won.incrementAndGet();
+        } catch (ValidationException e) {
+            rejected.incrementAndGet();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void runConcurrently(IntConsumer attempt) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch startGate = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(ATTEMPTS);
+
+        for (int i = 0; i < ATTEMPTS; i++) {
+            int index = i;
+            executor.submit(() -> {
+                try {
+                    startGate.await();
+                    attempt.accept(index);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        startGate.countDown();
+        done.await(30, TimeUnit.SECONDS);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,103 @@
+package hypercell.final_project.football_places_booking_system.service.Impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingIntervalDTO;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingSlotUpdateMessage;
+import hypercell.final_project.football_places_booking_system.model.enums.MatchStatus;
+import hypercell.final_project.football_places_booking_system.repository.BookingMatchRepository;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.BookingAvailabilityService;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.OpenMatchFeedService;
+import hypercell.final_project.football_places_booking_system.service.Interfaces.PlayerScheduleService;
+
+class BookingExpiryServiceImplTest {
+
+    private static final LocalDateTime YESTERDAY = LocalDateTime.now().minusDays(1).withHour(18).withMinute(0);
+
+    private BookingMatchRepository bookingMatchRepository;
+    private BookingAvailabilityService bookingAvailabilityService;
+    private OpenMatchFeedService openMatchFeedService;
+    private PlayerScheduleService playerScheduleService;
+    private SimpMessagingTemplate messagingTemplate;
+    private BookingExpiryServiceImpl expiryService;
+
+    @BeforeEach
+    void setUp() {
+        bookingMatchRepository = mock(BookingMatchRepository.class);
+        bookingAvailabilityService = mock(BookingAvailabilityService.class);
+        openMatchFeedService = mock(OpenMatchFeedService.class);
+        playerScheduleService = mock(PlayerScheduleService.class);
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        expiryService = new BookingExpiryServiceImpl(bookingMatchRepository, bookingAvailabilityService,
+                openMatchFeedService, playerScheduleService, messagingTemplate);
+    }
+
+    @Test
+    void cancelsExpiredBookingsChunkByChunkAndKeepsThoseConfirmedMeanwhile() {
+        UUID placeId = UUID.randomUUID();
+        List<BookingIntervalDTO> fullChunk = new ArrayList<>();
+        for (int i = 0; i < BookingExpiryServiceImpl.CHUNK_SIZE; i++) {
+            fullChunk.add(slot(placeId, YESTERDAY.plusMinutes(i)));
+        }
+        List<BookingIntervalDTO> lastChunk = List.of(slot(placeId, YESTERDAY.plusDays(1).minusHours(1)));
+        when(bookingMatchRepository.findIntervalsByStatusInStartingBefore(anyCollection(), any(), any()))
+                .thenReturn(fullChunk, lastChunk);
+        when(bookingMatchRepository.updateStatusIfCurrentIn(anyCollection(), anyCollection(), eq(MatchStatus.CANCELLED)))
+                .thenReturn(BookingExpiryServiceImpl.CHUNK_SIZE - 1, 1);
+
+        // the first booking of the first chunk was confirmed between the read and the update
+        Set<UUID> cancelledFirst = new HashSet<>(fullChunk.stream().skip(1).map(BookingIntervalDTO::id).toList());
+        when(bookingMatchRepository.findIdsByIdInAndStatus(anyCollection(), eq(MatchStatus.CANCELLED)))
+                .thenReturn(cancelledFirst, Set.of(lastChunk.get(0).id()));
+
+        int expired = expiryService.expireStaleBookings();
+
+        assertEquals(BookingExpiryServiceImpl.CHUNK_SIZE, expired);
+        verify(bookingMatchRepository, times(2)).updateStatusIfCurrentIn(anyCollection(), anyCollection(), any());
+        verify(bookingAvailabilityService, times(BookingExpiryServiceImpl.CHUNK_SIZE)).release(any());
+        verify(openMatchFeedService, never()).matchDelisted(fullChunk.get(0).id());
+        verify(playerScheduleService, times(BookingExpiryServiceImpl.CHUNK_SIZE)).matchChanged(any());
+        verify(playerScheduleService, never()).matchChanged(fullChunk.get(0).id());
+
+        // one update per place and day, however many bookings of that day expired
+        verify(messagingTemplate, times(2)).convertAndSend(eq("/topic/bookings"), any(BookingSlotUpdateMessage.class));
+
+        assertEquals(1, expiryService.getStats().runs());
+        assertEquals(BookingExpiryServiceImpl.CHUNK_SIZE, expiryService.getStats().lastExpired());
+    }
+
+    @Test
+    void runWithNothingToExpireOnlyCountsTheRun() {
+        when(bookingMatchRepository.findIntervalsByStatusInStartingBefore(anyCollection(), any(), any()))
+                .thenReturn(List.of());
+
+        assertEquals(0, expiryService.expireStaleBookings());
+        verify(bookingMatchRepository, never()).updateStatusIfCurrentIn(anyCollection(), anyCollection(), any());
+        verify(messagingTemplate, never()).convertAndSend(any(String.class), any(Object.class));
+        assertEquals(1, expiryService.getStats().runs());
+        assertEquals(0, expiryService.getStats().totalExpired());
+    }
+
+    private BookingIntervalDTO slot(UUID placeId, LocalDateTime start) {
+        return new BookingIntervalDTO(UUID.randomUUID(), placeId, null, start, start.plusHours(1));
+    }
+}
@@ -0,0 +1,78 @@
+package hypercell.final_project.football_places_booking_system.service.Impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import hypercell.final_project.football_places_booking_system.model.db.User;
+import hypercell.final_project.football_places_booking_system.model.enums.UserRole;
+import hypercell.final_project.football_places_booking_system.model.enums.UserStatus;
+import hypercell.final_project.football_places_booking_system.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+class CustomUserDetailsServiceImplTest {
+
+    private static final String EMAIL = "player@example.com";
+
+    private UserRepository userRepository;
+    private CustomUserDetailsServiceImpl userDetailsService;
+    private User stored;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userDetailsService = new CustomUserDetailsServiceImpl(userRepository);
+        stored = User.builder().id(UUID.randomUUID()).email(EMAIL).username("player")
+                .role(UserRole.USER).status(UserStatus.INACTIVE).build();
+        when(userRepository.findByEmail(EMAIL)).thenReturn(stored);
+    }
+
+    @Test
+    void freshTokenClaimsAreTrustedUntilTheAccountChanges() {
+        Claims claims = claims(new Date(System.currentTimeMillis() + 2_000));
+
+        User principal = (User) userDetailsService.loadPrincipal(claims);
+        assertEquals(stored.getId(), principal.getId());
+        assertEquals(UserStatus.ACTIVE, principal.getStatus());
+        verify(userRepository, never()).findByEmail(any());
+
+        // once the account changed, the same token goes to the database and sees the new status
+        userDetailsService.evict(EMAIL);
+        assertSame(stored, userDetailsService.loadPrincipal(claims(new Date(System.currentTimeMillis() - 1_000))));
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void tokensIssuedBeforeStartupAreLoadedOnceAndThenServedFromTheCache() {
+        Claims claims = claims(new Date(System.currentTimeMillis() - 60_000));
+
+        assertSame(stored, userDetailsService.loadPrincipal(claims));
+        assertSame(stored, userDetailsService.loadPrincipal(claims));
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+
+        userDetailsService.evict(EMAIL);
+        userDetailsService.loadPrincipal(claims);
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    private Claims claims(Date issuedAt) {
+        Claims claims = Jwts.claims().setSubject(EMAIL).setIssuedAt(issuedAt);
+        claims.put("userId", stored.getId().toString());
+        claims.put("username", "player");
+        claims.put("role", UserRole.USER.name());
+        claims.put("status", UserStatus.ACTIVE.name());
+        return claims;
+    }
+}
@@ -0,0 +1,47 @@
+package hypercell.final_project.football_places_booking_system.service.Impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import hypercell.final_project.football_places_booking_system.model.db.User;
+import hypercell.final_project.football_places_booking_system.model.enums.UserRole;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.SignatureException;
+
+class JwtServiceImplTest {
+
+    private static final String SECRET = "tzyUDpPD0UdhgKyr0oTRNOL1hGajLHikkatdo29yrGvqfvLm10FcFEvNqT0PNEw1x/MyHN2GJFemFuzoSsRt/w==";
+
+    private final User user = User.builder().id(UUID.randomUUID()).email("player@example.com").role(UserRole.USER).build();
+
+    @Test
+    void verifiedClaimsAreReusedForTheSameToken() {
+        JwtServiceImpl jwtService = new JwtServiceImpl(SECRET, 60_000);
+        String token = jwtService.generateToken(user);
+
+        assertEquals("player@example.com", jwtService.extractUsername(token));
+        assertTrue(jwtService.isTokenValid(token, user));
+        assertSame(jwtService.extractAllClaims(token), jwtService.extractAllClaims(token));
+    }
+
+    @Test
+    void tamperedAndExpiredTokensAreStillRejected() {
+        JwtServiceImpl jwtService = new JwtServiceImpl(SECRET, 60_000);
+        String token = jwtService.generateToken(user);
+        jwtService.extractAllClaims(token);
+
+        String[] parts = token.split("\\.");
+        String tampered = parts[0] + "." + parts[1] + "." + new StringBuilder(parts[2]).reverse();
+        assertThrows(SignatureException.class, () -> jwtService.extractAllClaims(tampered));
+
+        JwtServiceImpl expiringService = new JwtServiceImpl(SECRET, -1_000);
+        String expired = expiringService.generateToken(user);
+        assertThrows(ExpiredJwtException.class, () -> expiringService.extractUsername(expired));
+    }
+}
@@ -0,0 +1,73 @@
+package hypercell.final_project.football_places_booking_system.service.Impl;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import hypercell.final_project.football_places_booking_system.exception.ValidationException;
+import hypercell.final_project.football_places_booking_system.model.db.BookingMatch;
+import hypercell.final_project.football_places_booking_system.model.dto.BookingDTOs.BookingIntervalDTO;
+import hypercell.final_project.football_places_booking_system.model.enums.MatchStatus;
+import hypercell.final_project.football_places_booking_system.model.enums.ParticipantStatus;
+import hypercell.final_project.football_places_booking_system.repository.MatchParticipantRepository;
+
+class PlayerScheduleServiceImplTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 5, 10, 20, 0);
+
+    private MatchParticipantRepository matchParticipantRepository;
+    private PlayerScheduleServiceImpl playerScheduleService;
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        matchParticipantRepository = mock(MatchParticipantRepository.class);
+        // the player already accepted a match from 20:00 to 21:00
+        when(matchParticipantRepository.findIntervalsByUserIdInWindow(eq(userId), eq(ParticipantStatus.ACCEPTED),
+                eq(MatchStatus.CANCELLED), any(), any()))
+                .thenReturn(List.of(new BookingIntervalDTO(UUID.randomUUID(), null, null, BASE, BASE.plusHours(1))));
+
+        playerScheduleService = new PlayerScheduleServiceImpl(matchParticipantRepository);
+    }
+
+    @Test
+    void overlappingMatchIsRejectedAndAdjacentOneAccepted() throws Exception {
+        assertThrows(ValidationException.class,
+                () -> playerScheduleService.claim(userId, match(BASE.plusMinutes(30), BASE.plusMinutes(90))));
+        assertDoesNotThrow(() -> playerScheduleService.claim(userId, match(BASE.plusHours(1), BASE.plusHours(2))));
+
+        assertEquals(2, playerScheduleService.getBusyTimes(userId, BASE, BASE.plusDays(1)).size());
+    }
+
+    @Test
+    void cancelledMatchFreesThePlayerAfterReload() throws Exception {
+        BookingMatch match = match(BASE.plusHours(3), BASE.plusHours(4));
+        playerScheduleService.claim(userId, match);
+        when(matchParticipantRepository.findUserIdsByBookingMatchIdAndStatus(match.getId(), ParticipantStatus.ACCEPTED))
+                .thenReturn(List.of(userId));
+
+        playerScheduleService.matchChanged(match.getId());
+
+        assertDoesNotThrow(() -> playerScheduleService.claim(userId, match(BASE.plusHours(3), BASE.plusHours(4))));
+    }
+
+    private BookingMatch match(LocalDateTime start, LocalDateTime end) {
+        return BookingMatch.builder()
+                .id(UUID.randomUUID())
+                .startTime(start)
+                .endTime(end)
+                .status(MatchStatus.PENDING_PLAYERS)
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package hypercell.final_project.football_places_booking_system.service.Impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import hypercell.final_project.football_places_booking_system.model.enums.TeamRole;
+import hypercell.final_project.football_places_booking_system.repository.TeamMemberRepository;
+
+class TeamRoleServiceImplTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID teamId = UUID.randomUUID();
+
+    private TeamMemberRepository teamMemberRepository;
+    private TeamRoleServiceImpl teamRoleService;
+
+    @BeforeEach
+    void setUp() {
+        teamMemberRepository = mock(TeamMemberRepository.class);
+        teamRoleService = new TeamRoleServiceImpl(teamMemberRepository);
+    }
+
+    @Test
+    void roleIsLoadedOnceUntilTheMembershipChanges() {
+        when(teamMemberRepository.findRoleByUserIdAndTeamId(userId, teamId))
+                .thenReturn(Optional.of(TeamRole.PLAYER), Optional.of(TeamRole.ORGANIZER));
+
+        assertEquals(Optional.of(TeamRole.PLAYER), teamRoleService.findRole(userId, teamId));
+        assertEquals(Optional.of(TeamRole.PLAYER), teamRoleService.findRole(userId, teamId));
+        verify(teamMemberRepository, times(1)).findRoleByUserIdAndTeamId(userId, teamId);
+
+        teamRoleService.memberChanged(userId, teamId);
+        assertEquals(Optional.of(TeamRole.ORGANIZER), teamRoleService.findRole(userId, teamId));
+        verify(teamMemberRepository, times(2)).findRoleByUserIdAndTeamId(userId, teamId);
+    }
+
+    @Test
+    void missingMembershipIsCachedAndDroppedWithItsTeam() {
+        when(teamMemberRepository.findRoleByUserIdAndTeamId(userId, teamId)).thenReturn(Optional.empty());
+
+        assertEquals(Optional.empty(), teamRoleService.findRole(userId, teamId));
+        assertEquals(Optional.empty(), teamRoleService.findRole(userId, teamId));
+        verify(teamMemberRepository, times(1)).findRoleByUserIdAndTeamId(userId, teamId);
+
+        teamRoleService.teamChanged(teamId);
+        teamRoleService.findRole(userId, teamId);
+        verify(teamMemberRepository, times(2)).findRoleByUserIdAndTeamId(userId, teamId);
+    }
+
+    @Test
+    void roleReadBeforeACommittedChangeIsNotCached() {
+        // the membership changes and its evict runs while the old role is being read
+        when(teamMemberRepository.findRoleByUserIdAndTeamId(userId, teamId))
+                .thenAnswer(invocation -> {
+                    teamRoleService.memberChanged(userId, teamId);
+                    return Optional.of(TeamRole.ORGANIZER);
+                })
+                .thenReturn(Optional.of(TeamRole.PLAYER));
+
+        assertEquals(Optional.of(TeamRole.ORGANIZER), teamRoleService.findRole(userId, teamId));
+        assertEquals(Optional.of(TeamRole.PLAYER), teamRoleService.findRole(userId, teamId));
+        verify(teamMemberRepository, times(2)).findRoleByUserIdAndTeamId(userId, teamId);
+    }
+
+    @Test
+    void roleReadInsideARolledBackChangeIsNotCached() {
+        when(teamMemberRepository.findRoleByUserIdAndTeamId(userId, teamId))
+                .thenReturn(Optional.of(TeamRole.PLAYER), Optional.of(TeamRole.ORGANIZER), Optional.of(TeamRole.PLAYER));
+        assertEquals(Optional.of(TeamRole.PLAYER), teamRoleService.findRole(userId, teamId));
+
+        // the transaction promotes the user, reads the new role back, then rolls back
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            teamRoleService.memberChanged(userId, teamId);
+            assertEquals(Optional.of(TeamRole.ORGANIZER), teamRoleService.findRole(userId, teamId));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(TransactionSynchronizationManager.hasResource(teamRoleService));
+        assertEquals(Optional.of(TeamRole.PLAYER), teamRoleService.findRole(userId, teamId));
+        verify(teamMemberRepository, times(3)).findRoleByUserIdAndTeamId(userId, teamId);
+    }
+}
@@ -0,0 +1,78 @@
+package hypercell.final_project.football_places_booking_system.service.Impl;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import hypercell.final_project.football_places_booking_system.model.db.TokenRevocation;
+import hypercell.final_project.football_places_booking_system.repository.TokenRevocationRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+class TokenRevocationServiceImplTest {
+
+    private static final long LIFETIME = 900_000;
+
+    private TokenRevocationRepository tokenRevocationRepository;
+    private TokenRevocationServiceImpl revocationService;
+
+    @BeforeEach
+    void setUp() {
+        tokenRevocationRepository = mock(TokenRevocationRepository.class);
+        revocationService = new TokenRevocationServiceImpl(tokenRevocationRepository, LIFETIME);
+    }
+
+    @Test
+    void tokensMissingFromTheFilterNeverReachTheDatabase() {
+        assertFalse(revocationService.isRevoked(claims(UUID.randomUUID(), UUID.randomUUID())));
+
+        verify(tokenRevocationRepository, never()).existsByTokenId(any());
+        verify(tokenRevocationRepository, never())
+                .existsByUserIdAndTokenIdIsNullAndRevokedAtGreaterThan(any(), any());
+    }
+
+    @Test
+    void loggedOutTokenIsRejectedAfterTheDatabaseConfirmsTheFilterHit() {
+        UUID tokenId = UUID.randomUUID();
+        Claims claims = claims(tokenId, UUID.randomUUID());
+        when(tokenRevocationRepository.existsByTokenId(tokenId)).thenReturn(true);
+
+        revocationService.revokeToken(claims);
+
+        assertTrue(revocationService.isRevoked(claims));
+    }
+
+    @Test
+    void bannedUserStaysRevokedAcrossARebuild() {
+        UUID userId = UUID.randomUUID();
+        Claims claims = claims(UUID.randomUUID(), userId);
+        when(tokenRevocationRepository.findByExpiresAtAfter(any())).thenReturn(List.of(
+                TokenRevocation.builder().userId(userId).build()));
+        when(tokenRevocationRepository.existsByUserIdAndTokenIdIsNullAndRevokedAtGreaterThan(any(), any()))
+                .thenReturn(true);
+
+        revocationService.rebuild();
+
+        assertTrue(revocationService.isRevoked(claims));
+    }
+
+    private Claims claims(UUID tokenId, UUID userId) {
+        Claims claims = Jwts.claims()
+                .setId(tokenId.toString())
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + LIFETIME));
+        claims.put("userId", userId.toString());
+        return claims;
+    }
+}
@@ -5,7 +5,8 @@ export const authInterceptor: HttpInterceptorFn = (req, next) => {
 
   const excludedUrls = [
     '/api/auth/login',
-    '/api/auth/register'
+    '/api/auth/register',
+    '/api/auth/refresh'
   ];
 
   const isExcluded = excludedUrls.some(url => req.url.includes(url));
@@ -1,5 +1,48 @@
-import { HttpInterceptorFn } from '@angular/common/http';
+import { HttpClient, HttpErrorResponse, HttpInterceptorFn } from '@angular/common/http';
+import { inject } from '@angular/core';
+import { Observable, catchError, finalize, shareReplay, switchMap, throwError } from 'rxjs';
 
+import { IRegisterResponseUser } from '../models/iuser.model';
+
+// Refresh in flight, shared by every request that failed while it runs
+let refreshing: Observable<IRegisterResponseUser> | null = null;
+
+/**
+ * Access tokens are short-lived. When a request fails with 401 and a refresh token is stored,
+ * trade it for a new pair once and retry the request with the new access token.
+ */
 export const tokenInterceptor: HttpInterceptorFn = (req, next) => {
-  return next(req);
+  const http = inject(HttpClient);
+
+  return next(req).pipe(
+    catchError((error: HttpErrorResponse) => {
+      const refreshToken = sessionStorage.getItem('refresh_token');
+      if (error.status !== 401 || !refreshToken || req.url.includes('/api/auth/')) {
+        return throwError(() => error);
+      }
+
+      if (!refreshing) {
+        refreshing = http.post<IRegisterResponseUser>('http://localhost:8080/api/auth/refresh', { refreshToken }).pipe(
+          finalize(() => refreshing = null),
+          shareReplay(1)
+        );
+      }
+
+      return refreshing.pipe(
+        catchError((refreshError: HttpErrorResponse) => {
+          // Only a rejected refresh token ends the session; 429 and 503 mean the server is busy
+          if (refreshError.status === 401 || refreshError.status === 403) {
+            sessionStorage.removeItem('jwt_token');
+            sessionStorage.removeItem('refresh_token');
+          }
+          return throwError(() => refreshError);
+        }),
+        switchMap(response => {
+          sessionStorage.setItem('jwt_token', response.token);
+          sessionStorage.setItem('refresh_token', response.refreshToken);
+          return next(req.clone({ setHeaders: { Authorization: `Bearer ${response.token}` } }));
+        })
+      );
+    })
+  );
 };
@@ -27,6 +27,7 @@ export interface IRegisterResponseUser {
   id: string;
   token: string;
   role: myUserRole;
+  refreshToken: string;
 }
 
 
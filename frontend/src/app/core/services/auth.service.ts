@@ -43,6 +43,7 @@ export class AuthService {
             if (typeof sessionStorage !== 'undefined') {
               sessionStorage.setItem('isLoggedIn', 'true');
               sessionStorage.setItem('jwt_token', response.token);
+              sessionStorage.setItem('refresh_token', response.refreshToken);
               sessionStorage.setItem('currentUserRole', response.role);
             }
             console.log('AuthService: Registration successful with backend. Role:', response.role);
@@ -101,6 +102,7 @@ export class AuthService {
           if (typeof sessionStorage !== 'undefined') {
             sessionStorage.setItem('isLoggedIn', 'true');
             sessionStorage.setItem('jwt_token', response.token);
+            sessionStorage.setItem('refresh_token', response.refreshToken);
             sessionStorage.setItem('currentUserRole', response.role);
           }
           console.log('AuthService: Login successful with backend. Role:', response.role);
@@ -146,8 +148,14 @@ export class AuthService {
    */
   logout(): void {
     if (typeof sessionStorage !== 'undefined') {
+      // End the session on the server too, so its tokens can no longer be used
+      const refreshToken = sessionStorage.getItem('refresh_token');
+      if (refreshToken) {
+        this.http.post(`${this.apiUrl}/logout`, { refreshToken }).subscribe({ error: () => {} });
+      }
       sessionStorage.removeItem('isLoggedIn');
       sessionStorage.removeItem('jwt_token'); // Clear the JWT token
+      sessionStorage.removeItem('refresh_token'); // Clear the refresh token
       sessionStorage.removeItem('currentUserRole'); // Clear the user's role
       sessionStorage.removeItem('currentUser'); // Clear the current user
     }
@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
-import { Observable, of } from 'rxjs';
-import { catchError, map } from 'rxjs/operators';
+import { HttpClient, HttpParams } from '@angular/common/http';
+import { EMPTY, Observable, of } from 'rxjs';
+import { catchError, expand, map, reduce } from 'rxjs/operators';
 import { BookingStatus } from './match-participant.service';
 
 export interface IBooking {
@@ -19,6 +19,21 @@ export interface IBooking {
   userName?: string;
 }
 
+export interface IBookingPage {
+  items: IBooking[];
+  nextCursor: string | null;
+}
+
+export interface IBookingPageFilters {
+  status?: BookingStatus;
+  placeId?: string;
+  teamId?: string;
+  from?: string;
+  to?: string;
+  cursor?: string;
+  size?: number;
+}
+
 export interface ITimeSlot {
   id: string;
   place_id: string;
@@ -36,16 +51,30 @@ export class BookingService {
 
   constructor(private http: HttpClient) {}
 
-  // Get all bookings (Admin or Organizer)
-getBookings(): Observable<IBooking[]> {
-    return this.http.get<IBooking[]>(`${this.apiUrl}/all`).pipe(
+  // One page of all bookings (Admin or Organizer); pass nextCursor back as cursor for the next page
+getBookings(filters: IBookingPageFilters = {}): Observable<IBookingPage> {
+    let params = new HttpParams();
+    Object.entries(filters).forEach(([key, value]) => {
+      if (value !== undefined && value !== null && value !== '') {
+        params = params.set(key, String(value));
+      }
+    });
+    return this.http.get<IBookingPage>(`${this.apiUrl}/all`, { params }).pipe(
       catchError(err => {
         console.error('Error fetching all bookings:', err);
-        return of([]);
+        return of({ items: [], nextCursor: null });
       })
     );
 }
 
+  // Every booking matching the filters, following nextCursor page by page until the feed is exhausted
+getAllBookingPages(filters: IBookingPageFilters = {}): Observable<IBooking[]> {
+    return this.getBookings(filters).pipe(
+      expand(page => page.nextCursor ? this.getBookings({ ...filters, cursor: page.nextCursor }) : EMPTY),
+      reduce((all: IBooking[], page) => all.concat(page.items), [])
+    );
+}
+
   // Get bookings for a specific user
   getUserBookings(userId: string): Observable<IBooking[]> {
     return this.http.get<{ content: IBooking[] }>(`${this.apiUrl}/user/${userId}`).pipe(
@@ -57,9 +86,20 @@ getBookings(): Observable<IBooking[]> {
     );
   }
 
-  // Get bookings where current user is an organizer in any team
-getMyMatchesAsOrganizer(): Observable<IBooking[]> {
-  return this.http.get<IBooking[]>(`${this.apiUrl}/my/organizer`).pipe(
+  // Get bookings where current user is an organizer in any team.
+  // The endpoint is paged and upcoming-only by default; this reads every page, past ones too when includePast is set
+getMyMatchesAsOrganizer(includePast = false): Observable<IBooking[]> {
+  const size = 200;
+  const fetchPage = (page: number) => this.http.get<IBooking[]>(`${this.apiUrl}/my/organizer`, {
+    params: new HttpParams()
+      .set('includePast', String(includePast))
+      .set('page', String(page))
+      .set('size', String(size))
+  }).pipe(map(items => ({ page, items })));
+
+  return fetchPage(0).pipe(
+    expand(res => res.items.length === size ? fetchPage(res.page + 1) : EMPTY),
+    reduce((all: IBooking[], res) => all.concat(res.items), []),
     catchError(err => {
       console.error('Error fetching organizer bookings:', err);
       return of([]);
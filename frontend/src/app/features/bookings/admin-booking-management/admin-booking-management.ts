@@ -52,6 +52,8 @@ export class AdminBookingManagementComponent implements OnInit {
   pendingBookings: IBooking[] = [];
   confirmedBookings: IBooking[] = [];
   cancelledBookings: IBooking[] = [];
+  nextCursor: string | null = null;
+  readonly pageSize = 50;
   currentUser: any;
 
   constructor(
@@ -82,11 +84,11 @@ ngOnInit(): void {
 
 
   loadAllBookings(): void {
-    this.bookingService.getBookings().subscribe({
-      next: (bookings) => {
-        this.allBookings = bookings;
+    this.bookingService.getBookings({ size: this.pageSize }).subscribe({
+      next: (page) => {
+        this.allBookings = page.items;
+        this.nextCursor = page.nextCursor;
         this.categorizeBookings();
-        console.log('All bookings loaded:', this.allBookings);
       },
       error: (error) => {
         console.error('Error loading bookings:', error);
@@ -94,6 +96,21 @@ ngOnInit(): void {
     });
   }
 
+  loadMoreBookings(): void {
+    if (!this.nextCursor) return;
+
+    this.bookingService.getBookings({ size: this.pageSize, cursor: this.nextCursor }).subscribe({
+      next: (page) => {
+        this.allBookings = [...this.allBookings, ...page.items];
+        this.nextCursor = page.nextCursor;
+        this.categorizeBookings();
+      },
+      error: (error) => {
+        console.error('Error loading more bookings:', error);
+      }
+    });
+  }
+
   categorizeBookings(): void {
     this.pendingBookings = this.allBookings.filter(b => b.status === 'PENDING_PAYMENT');
     this.confirmedBookings = this.allBookings.filter(b => b.status === 'CONFIRMED');
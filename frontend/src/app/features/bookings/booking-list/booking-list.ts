@@ -70,7 +70,7 @@ export class BookingListComponent implements OnInit {
     this.errorMessage = null;
 
     // ✅ Load bookings where user is organizer
-    this.bookingService.getMyMatchesAsOrganizer().subscribe({
+    this.bookingService.getMyMatchesAsOrganizer(true).subscribe({
       next: (bookings) => {
         const now = new Date();
 
@@ -183,7 +183,7 @@ export class BookingListComponent implements OnInit {
    * Show participants of a past booking in the same page (old logic)
    */
   viewMatchParticipants(booking: IBooking): void {
-  this.bookingService.getMyMatchesAsOrganizer().subscribe({
+  this.bookingService.getMyMatchesAsOrganizer(true).subscribe({
     next: (matches) => {
       const relatedMatch = matches.find(
         m => m.placeId === booking.placeId &&
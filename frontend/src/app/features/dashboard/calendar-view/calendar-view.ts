@@ -74,8 +74,12 @@ private async loadCalendarEvents() {
   try {
     const currentUser = this.authService.getCurrentUser();
 
+    // Bookings from the start of today on, every page of them; older history is not loaded here
+    const today = new Date();
+    const from = `${today.getFullYear()}-${String(today.getMonth() + 1).padStart(2, '0')}-${String(today.getDate()).padStart(2, '0')}T00:00:00`;
+
     const [allBookings, participantMatches, myMatchesAsOrganizer, places] = await Promise.all([
-      this.bookingService.getBookings().toPromise(),
+      this.bookingService.getAllBookingPages({ from, size: 200 }).toPromise(),
       this.matchService.getUserParticipatedMatches().toPromise(),
       this.bookingService.getMyMatchesAsOrganizer().toPromise(),
       this.placeService.getAllPlaces().toPromise()